@@ -0,0 +1,115 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how Iso8601ParallelDateTimeColumnParser scales from 1 to N 
+ * 	threads on a large synthetic column.  Not a unit test; run it by hand:
+ * 
+ * 	java -Xmx4g -cp ... edu.uams.dbmi.util.iso8601.ColumnParseScalingBenchmark 
+ * 		[rows [maxThreads [threshold]]]
+ * 
+ * The defaults are 100,000,000 rows, one thread per processor, and 
+ * 	Iso8601ParallelDateTimeColumnParser.DEFAULT_THRESHOLD.  To keep the 
+ * 	column in memory, it cycles through 2^20 distinct date/times (in both
+ * 	formats, with a few malformed ones mixed in), so the output arrays, 
+ * 	not the strings, dominate the heap.
+ * 
+ * @author williamhogan
+ *
+ */
+public class ColumnParseScalingBenchmark {
+	
+	static final int DISTINCT = 1 << 20;
+	static final int REPETITIONS = 3;
+	
+	public static void main(String[] args) {
+		int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 100000000;
+		int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) :
+			Runtime.getRuntime().availableProcessors();
+		int threshold = (args.length > 2) ? Integer.parseInt(args[2]) :
+			Iso8601ParallelDateTimeColumnParser.DEFAULT_THRESHOLD;
+		
+		CharSequence[] column = buildColumn(rows);
+		long[] epochMillis = new long[rows];
+		byte[] precision = new byte[rows];
+		short[] offsetMinutes = new short[rows];
+		BitSet errors = new BitSet(rows);
+		
+		System.out.println("rows=" + rows + " threshold=" + threshold);
+		System.out.println("threads\tms\trows/s\tspeedup");
+		double base = 0;
+		for (int threads=1; threads<=maxThreads; threads++) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			Iso8601ParallelDateTimeColumnParser p = 
+					new Iso8601ParallelDateTimeColumnParser(pool, threshold);
+			/*
+			 * One untimed pass to warm up, then the best of the rest.
+			 */
+			p.parseToEpochMillis(column, epochMillis, precision, 
+					offsetMinutes, errors);
+			long best = Long.MAX_VALUE;
+			for (int i=0; i<REPETITIONS; i++) {
+				long start = System.nanoTime();
+				p.parseToEpochMillis(column, epochMillis, precision, 
+						offsetMinutes, errors);
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			pool.shutdown();
+			
+			double rate = rows / (best / 1e9);
+			if (threads == 1) {
+				base = rate;
+			}
+			System.out.printf("%d\t%d\t%.0f\t%.2f%n", threads, 
+					best / 1000000, rate, rate / base);
+		}
+		System.out.println("errors=" + errors.cardinality());
+	}
+	
+	static CharSequence[] buildColumn(int rows) {
+		Random r = new Random(8601);
+		String[] distinct = new String[Math.min(rows, DISTINCT)];
+		for (int i=0; i<distinct.length; i++) {
+			int yr = 1970 + r.nextInt(60);
+			int mo = 1 + r.nextInt(12);
+			int da = 1 + r.nextInt(28);
+			int hr = r.nextInt(24);
+			int mi = r.nextInt(60);
+			int se = r.nextInt(60);
+			int ms = r.nextInt(1000);
+			int kind = r.nextInt(100);
+			if (kind < 60) {
+				distinct[i] = String.format("%04d-%02d-%02dT%02d:%02d:%02d.%03dZ",
+						yr, mo, da, hr, mi, se, ms);
+			} else if (kind < 95) {
+				distinct[i] = String.format("%04d%02d%02dT%02d%02d%02d-0500",
+						yr, mo, da, hr, mi, se);
+			} else {
+				distinct[i] = String.format("%04d-%02d-%02d %02d:%02d", 
+						yr, mo, da, hr, mi);
+			}
+		}
+		CharSequence[] column = new CharSequence[rows];
+		for (int i=0; i<rows; i++) {
+			column[i] = distinct[i % distinct.length];
+		}
+		return column;
+	}
+}
@@ -0,0 +1,111 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+/**
+ * JMH benchmark of the per-call cost of the formatters, writing into a 
+ * 	reused char[] and building a String.  Not a unit test; run it by hand,
+ * 	after mvn package, with:
+ * 
+ * 	java -cp ... org.openjdk.jmh.Main FormatBenchmark [JMH options]
+ * 
+ * with iso8601-core, iso8601-benchmark, and JMH (jmh-core, jopt-simple,
+ * 	commons-math3) on the class path.
+ * 
+ * @author williamhogan
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FormatBenchmark {
+	
+	Iso8601DateFormatter ymd;
+	Iso8601DateFormatter ordinal;
+	Iso8601DateTimeFormatter dtf;
+	
+	Iso8601Date date;
+	Iso8601DateTime seconds;
+	Iso8601DateTime millis;
+	
+	char[] buf;
+	
+	@Setup
+	public void setUp() throws Exception {
+		ymd = new Iso8601DateFormatter();
+		Iso8601DateFormatter.FormatOptions fo = 
+				new Iso8601DateFormatter.FormatOptions();
+		fo.setConfiguration(DateConfiguration.YEAR_DAY_OF_YEAR);
+		fo.setExtended(true);
+		fo.setYearDigits(4);
+		ordinal = new Iso8601DateFormatter(fo);
+		dtf = new Iso8601DateTimeFormatter();
+		
+		date = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 2011, 11, 
+				11);
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		seconds = p.parse("2011-11-11T11:11:11-05:00");
+		millis = p.parse("2011-11-11T11:11:11.111Z");
+		buf = new char[64];
+	}
+	
+	@Benchmark
+	public int dateToChars() {
+		return ymd.formatTo(date, buf, 0);
+	}
+	
+	@Benchmark
+	public int ordinalDateToChars() {
+		return ordinal.formatTo(date, buf, 0);
+	}
+	
+	@Benchmark
+	public int dateTimeToChars() {
+		return dtf.formatTo(seconds, buf, 0);
+	}
+	
+	@Benchmark
+	public int millisDateTimeToChars() {
+		return dtf.formatTo(millis, buf, 0);
+	}
+	
+	@Benchmark
+	public String dateTimeToString() {
+		return dtf.format(seconds);
+	}
+	
+	@Benchmark
+	public String timeZoneToString() {
+		return Iso8601TimeZoneFormatter.formatTimeZone(-5, 30);
+	}
+}
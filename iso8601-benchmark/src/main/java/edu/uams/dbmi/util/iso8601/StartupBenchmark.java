@@ -0,0 +1,161 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures what a short-lived JVM pays the first time it uses the library:
+ * 	the time of the first call, and the classes loaded in all, from the
+ * 	library, and from JScience (including javolution, which it uses).  
+ * 	Each scenario runs in fresh JVMs, since none of this can be measured 
+ * 	twice in one.  Not a unit test; run it by hand:
+ * 
+ * 	java -cp ... edu.uams.dbmi.util.iso8601.StartupBenchmark [runs]
+ * 
+ * with iso8601-core, iso8601-jscience and jscience on the class path.
+ * 	The scenarios are:
+ * 
+ * 	date		parse a date (iso8601-core only)
+ * 	datetime	parse a date/time with a subsecond (iso8601-core only)
+ * 	unit		parse a date/time, then get its JScience unit 
+ * 				(iso8601-jscience)
+ * 
+ * The default is 10 timed runs per scenario, and the medians are 
+ * 	reported.  The library and JScience classes are counted in one more 
+ * 	run with -verbose:class, which is too slow to time.
+ * 
+ * @author williamhogan
+ *
+ */
+public class StartupBenchmark {
+	
+	static final String[] SCENARIOS = { "date", "datetime", "unit" };
+	static final String PROBE = "probe";
+	
+	public static void main(String[] args) throws Exception {
+		if (args.length > 1 && args[0].equals(PROBE)) {
+			probe(args[1]);
+			return;
+		}
+		int runs = (args.length > 0) ? Integer.parseInt(args[0]) : 10;
+		
+		System.out.println("runs=" + runs + " java=" + 
+				System.getProperty("java.version"));
+		System.out.println("scenario\tfirst-call us\tuptime ms\tclasses\t" +
+				"iso8601\tjscience");
+		for (String scenario : SCENARIOS) {
+			long[][] samples = new long[3][runs];
+			for (int i=0; i<runs; i++) {
+				long[] sample = runProbe(scenario, false);
+				for (int j=0; j<samples.length; j++) {
+					samples[j][i] = sample[j];
+				}
+			}
+			long[] counted = runProbe(scenario, true);
+			StringBuilder line = new StringBuilder(scenario);
+			for (long[] s : samples) {
+				line.append('\t').append(median(s));
+			}
+			line.append('\t').append(counted[3]);
+			line.append('\t').append(counted[4]);
+			System.out.println(line);
+		}
+	}
+	
+	/*
+	 * First-call microseconds, JVM uptime in milliseconds, total classes 
+	 * 	loaded, and, if verbose, classes loaded from this library and 
+	 * 	classes loaded from javax.measure, org.jscience or javolution.
+	 */
+	static long[] runProbe(String scenario, boolean verbose) 
+			throws IOException, InterruptedException {
+		String java = System.getProperty("java.home") + File.separator + 
+				"bin" + File.separator + "java";
+		List<String> command = new ArrayList<String>();
+		command.add(java);
+		if (verbose) {
+			command.add("-verbose:class");
+		}
+		command.addAll(Arrays.asList("-cp", 
+				System.getProperty("java.class.path"), 
+				StartupBenchmark.class.getName(), PROBE, scenario));
+		Process p = new ProcessBuilder(command).redirectErrorStream(true)
+				.start();
+		BufferedReader in = new BufferedReader(
+				new InputStreamReader(p.getInputStream(), "UTF-8"));
+		long[] sample = new long[5];
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (line.startsWith(PROBE)) {
+				String[] fields = line.split("\t");
+				for (int i=0; i<3; i++) {
+					sample[i] = Long.parseLong(fields[i + 1]);
+				}
+			} else if (line.contains(" edu.uams.dbmi.util.iso8601.") &&
+					!line.contains("Benchmark")) {
+				sample[3]++;
+			} else if (line.contains(" javax.measure.") || 
+					line.contains(" org.jscience.") || 
+					line.contains(" javolution.")) {
+				sample[4]++;
+			}
+		}
+		in.close();
+		if (p.waitFor() != 0) {
+			throw new IllegalStateException("Probe for " + scenario + 
+					" failed");
+		}
+		return sample;
+	}
+	
+	static void probe(String scenario) throws Exception {
+		long start = System.nanoTime();
+		Object result;
+		if (scenario.equals("date")) {
+			result = new Iso8601DateParser().parse("2011-11-11");
+		} else {
+			Iso8601DateTime dt = new Iso8601DateTimeParser().parse(
+					"2011-11-11T11:11:11.111-05:00");
+			result = (scenario.equals("unit")) ? 
+					TimeUnit.unitOf((Iso8601UnitTime)dt.getTime()) : dt;
+		}
+		long micros = (System.nanoTime() - start)/1000L;
+		if (result == null) {
+			throw new IllegalStateException();
+		}
+		/*
+		 * The management classes are loaded only now, so they count 
+		 * 	toward the total but not toward the first call.
+		 */
+		System.out.println(PROBE + "\t" + micros + "\t" + 
+				ManagementFactory.getRuntimeMXBean().getUptime() + "\t" +
+				ManagementFactory.getClassLoadingMXBean()
+				.getTotalLoadedClassCount());
+	}
+	
+	static long median(long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length/2];
+	}
+}
@@ -0,0 +1,90 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view of a range of ASCII bytes, in a byte[] or a (heap or 
+ * 	direct) ByteBuffer, as a CharSequence.  This lets the parsers read 
+ * 	digits straight out of raw I/O buffers instead of decoding them into
+ * 	a String first.
+ * 
+ * Each byte is widened to a char without any decoding, which is exact for
+ * 	ASCII.  Bytes outside ASCII simply become chars that are not legal 
+ * 	anywhere in ISO 8601 text, so the parse fails as it should.
+ * 
+ * The ByteBuffer is only ever read with absolute gets, so its position,
+ * 	limit, and mark are never touched.
+ */
+final class AsciiCharSequence implements CharSequence {
+	private final byte[] bytes;
+	private final ByteBuffer buffer;
+	private final int offset;
+	private final int length;
+	
+	AsciiCharSequence(byte[] bytes, int offset, int length) {
+		Iso8601DateParser.checkRange(bytes.length, offset, offset+length);
+		this.bytes = bytes;
+		this.buffer = null;
+		this.offset = offset;
+		this.length = length;
+	}
+	
+	AsciiCharSequence(ByteBuffer buffer, int index, int length) {
+		Iso8601DateParser.checkRange(buffer.limit(), index, index+length);
+		if (buffer.hasArray()) {
+			/*
+			 * Heap buffer: read the backing array directly.
+			 */
+			this.bytes = buffer.array();
+			this.buffer = null;
+			this.offset = buffer.arrayOffset() + index;
+		} else {
+			this.bytes = null;
+			this.buffer = buffer;
+			this.offset = index;
+		}
+		this.length = length;
+	}
+
+	public int length() {
+		return length;
+	}
+
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("index=" + index + 
+					", length=" + length);
+		}
+		int b = (bytes != null) ? bytes[offset+index] : 
+			buffer.get(offset+index);
+		return (char)(b & 0xff);
+	}
+
+	public CharSequence subSequence(int start, int end) {
+		Iso8601DateParser.checkRange(length, start, end);
+		char[] c = new char[end-start];
+		for (int i=start; i<end; i++) {
+			c[i-start] = charAt(i);
+		}
+		return new String(c);
+	}
+	
+	@Override
+	public String toString() {
+		return subSequence(0, length).toString();
+	}
+}
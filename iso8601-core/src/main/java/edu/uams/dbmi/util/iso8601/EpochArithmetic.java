@@ -0,0 +1,196 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+/*
+ * Calendar arithmetic on plain numbers, for code that needs the instant a
+ * 	date or date/time denotes without building a GregorianCalendar.
+ * 
+ * Days are counted from 1970-01-01 (epoch day 0) on the proleptic 
+ * 	Gregorian calendar, i.e., the Gregorian rules are applied to every
+ * 	year, including those before 1582.  GregorianCalendar switches to the
+ * 	Julian calendar before October 15, 1582, so for earlier dates the 
+ * 	results here differ from what the calendar-backed objects report.
+ * 
+ * The conversions from calendar, ordinal and week dates look the year up 
+ * 	in YearTable; the civil*() methods are the arithmetic behind it, for
+ * 	years outside the table.
+ */
+final class EpochArithmetic {
+	static final int SECONDS_PER_DAY = 86400;
+	static final long NANOS_PER_SECOND = 1000000000L;
+	static final long NANOS_PER_MINUTE = 60*NANOS_PER_SECOND;
+	static final long NANOS_PER_HOUR = 60*NANOS_PER_MINUTE;
+	static final long MILLIS_PER_SECOND = 1000L;
+	
+	private EpochArithmetic() {
+	}
+	
+	/*
+	 * Days from 1970-01-01 to year-month-1, plus dayOfMonth - 1.  The day of
+	 * 	month is not checked against the length of the month, so, like a 
+	 * 	lenient GregorianCalendar, February 30 is March 1 or 2.
+	 */
+	static long epochDay(long year, int month, int dayOfMonth) {
+		return YearTable.epochDay(year, month, dayOfMonth);
+	}
+	
+	static long epochDayOfYearDay(long year, int dayOfYear) {
+		return YearTable.januaryFirst(year) + dayOfYear - 1;
+	}
+	
+	static long epochDayOfWeekDay(long year, int week, int dayOfWeek) {
+		return YearTable.weekOneDayOne(year) + (week - 1)*7L + dayOfWeek - 1;
+	}
+	
+	/*
+	 * Monday of the week that contains January 4th, which by definition is
+	 * 	in ISO week 1.
+	 */
+	static long weekOneDayOne(long year) {
+		return YearTable.weekOneDayOne(year);
+	}
+	
+	/*
+	 * epochDay() without the table.
+	 * 
+	 * With thanks to Howard Hinnant's "chrono-Compatible Low-Level Date
+	 * 	Algorithms" for the era-based computation.
+	 */
+	static long civilEpochDay(long year, int month, int dayOfMonth) {
+		long y = (month <= 2) ? year - 1 : year;
+		long era = floorDiv(y, 400);
+		long yearOfEra = y - era*400;
+		int m = (month > 2) ? month - 3 : month + 9;
+		long dayOfYear = (153*m + 2)/5;
+		long dayOfEra = yearOfEra*365 + yearOfEra/4 - yearOfEra/100 + 
+				dayOfYear;
+		return era*146097 + dayOfEra - 719468 + dayOfMonth - 1;
+	}
+	
+	static long civilWeekOneDayOne(long year) {
+		long jan4 = civilEpochDay(year, 1, 4);
+		return jan4 - isoDayOfWeek(jan4) + 1;
+	}
+	
+	static boolean civilIsLeapYear(long year) {
+		return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+	}
+	
+	/*
+	 * 1 = Monday ... 7 = Sunday.  Epoch day 0 was a Thursday.
+	 */
+	static int isoDayOfWeek(long epochDay) {
+		return (int)floorMod(epochDay + 3, 7) + 1;
+	}
+	
+	/*
+	 * The inverse of epochDay(): the year, month and day of month of an epoch
+	 * 	day, found in one pass and packed into a long for yearOf(), 
+	 * 	monthOf() and dayOfMonthOf().  Days are shifted to an era that 
+	 * 	starts on March 1st so that the leap day, if any, is the last day of
+	 * 	the (shifted) year.  The year takes all but the low 9 bits, so it
+	 * 	must be within +/-2^53, far beyond any year an Iso8601Date can hold.
+	 */
+	static long yearMonthDay(long epochDay) {
+		long z = epochDay + 719468;
+		long era = floorDiv(z, 146097);
+		long dayOfEra = z - era*146097;
+		long yearOfEra = (dayOfEra - dayOfEra/1460 + dayOfEra/36524 -
+				dayOfEra/146096)/365;
+		int marchDay = (int)(dayOfEra -
+				(365*yearOfEra + yearOfEra/4 - yearOfEra/100));
+		int mp = (5*marchDay + 2)/153;
+		int dayOfMonth = marchDay - (153*mp + 2)/5 + 1;
+		int month = (mp < 10) ? mp + 3 : mp - 9;
+		long year = yearOfEra + era*400 + ((month <= 2) ? 1 : 0);
+		return (year << 9) | (month << 5) | dayOfMonth;
+	}
+	
+	static long yearOf(long yearMonthDay) {
+		return yearMonthDay >> 9;
+	}
+	
+	static int monthOf(long yearMonthDay) {
+		return (int)(yearMonthDay >> 5) & 0xF;
+	}
+	
+	static int dayOfMonthOf(long yearMonthDay) {
+		return (int)yearMonthDay & 0x1F;
+	}
+	
+	static long yearOfEpochDay(long epochDay) {
+		return yearOf(yearMonthDay(epochDay));
+	}
+
+	static int monthOfEpochDay(long epochDay) {
+		return monthOf(yearMonthDay(epochDay));
+	}
+
+	static int dayOfMonthOfEpochDay(long epochDay) {
+		return dayOfMonthOf(yearMonthDay(epochDay));
+	}
+
+	/*
+	 * 1-based day of the calendar year (January 1st == 1).
+	 */
+	static int dayOfYearOfEpochDay(long epochDay) {
+		return (int)(epochDay - 
+				YearTable.januaryFirst(yearOfEpochDay(epochDay))) + 1;
+	}
+
+	/*
+	 * The year that the ISO week containing the day belongs to.  It is the
+	 * 	calendar year of the Thursday of that week, so it differs from the
+	 * 	calendar year for a few days around New Year's Day.
+	 */
+	static long weekBasedYear(long epochDay) {
+		return yearOfEpochDay(epochDay - isoDayOfWeek(epochDay) + 4);
+	}
+
+	static int isoWeekOfYear(long epochDay) {
+		long monday = weekOneDayOne(weekBasedYear(epochDay));
+		return (int)((epochDay - monday)/7) + 1;
+	}
+
+	static long floorDiv(long x, long y) {
+		long q = x / y;
+		if ((x % y != 0) && ((x ^ y) < 0)) {
+			q--;
+		}
+		return q;
+	}
+	
+	static long floorMod(long x, long y) {
+		return x - floorDiv(x, y)*y;
+	}
+	
+	/*
+	 * seconds*scale + fraction, where 0 <= fraction < scale, or throws an
+	 * 	IllegalArgumentException if that does not fit in a long.
+	 */
+	static long scale(long seconds, long scale, long fraction) {
+		if (!inRange(seconds, scale, fraction)) {
+			throw new IllegalArgumentException("Instant is out of range (" + 
+					seconds + " seconds from the epoch)");
+		}
+		return seconds*scale + fraction;
+	}
+	
+	static boolean inRange(long seconds, long scale, long fraction) {
+		long scaled = seconds*scale;
+		return scaled/scale == seconds && scaled + fraction >= scaled;
+	}
+}
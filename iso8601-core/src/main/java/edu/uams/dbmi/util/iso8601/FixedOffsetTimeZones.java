@@ -0,0 +1,72 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+/*
+ * Fixed-offset time zones for building calendars from ISO 8601 times, 
+ * 	which carry an offset but no zone rules.  Every offset from -12:00 to
+ * 	+14:00 in 15-minute steps is built once, when the class is loaded, 
+ * 	so looking one up takes no locking and no allocation.  Other offsets
+ * 	(e.g., +05:07) get a new zone each time.
+ * 
+ * The zones are SimpleTimeZones without daylight saving time, with IDs
+ * 	like those TimeZone.getTimeZone("GMT-05:00") gives (and "UTC" for 
+ * 	zero).  They are shared, so they must never be modified or handed 
+ * 	out; Calendar.clone() clones its zone, so Iso8601DateTime.
+ * 	getCalendar() is safe.
+ */
+final class FixedOffsetTimeZones {
+	static final int MIN_OFFSET_MINUTES = -12*60;
+	static final int MAX_OFFSET_MINUTES = 14*60;
+	static final int STEP_MINUTES = 15;
+	
+	private static final TimeZone[] ZONES = 
+			new TimeZone[(MAX_OFFSET_MINUTES - MIN_OFFSET_MINUTES)/
+			             STEP_MINUTES + 1];
+	
+	static {
+		for (int i=0; i<ZONES.length; i++) {
+			ZONES[i] = newZone(MIN_OFFSET_MINUTES + i*STEP_MINUTES);
+		}
+	}
+	
+	private FixedOffsetTimeZones() {
+	}
+	
+	static TimeZone forOffsetMinutes(int offsetMinutes) {
+		int fromMin = offsetMinutes - MIN_OFFSET_MINUTES;
+		if (fromMin >= 0 && offsetMinutes <= MAX_OFFSET_MINUTES && 
+				fromMin % STEP_MINUTES == 0) {
+			return ZONES[fromMin/STEP_MINUTES];
+		}
+		return newZone(offsetMinutes);
+	}
+	
+	private static TimeZone newZone(int offsetMinutes) {
+		if (offsetMinutes == 0) {
+			return new SimpleTimeZone(0, "UTC");
+		}
+		int abs = Math.abs(offsetMinutes);
+		StringBuilder id = new StringBuilder("GMT");
+		id.append((offsetMinutes < 0) ? '-' : '+');
+		id.append((char)('0' + abs/600)).append((char)('0' + abs/60%10));
+		id.append(':');
+		id.append((char)('0' + abs%60/10)).append((char)('0' + abs%10));
+		return new SimpleTimeZone(offsetMinutes*60000, id.toString());
+	}
+}
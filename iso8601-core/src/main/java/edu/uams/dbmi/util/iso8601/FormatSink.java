@@ -0,0 +1,196 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.io.IOException;
+
+/**
+ * Where the formatters write their text: a char[], a byte[] (as ASCII, 
+ * 	which is all ISO 8601 text ever is), or an Appendable.  The sink is 
+ * 	passed around as a plain Object alongside the next position to write
+ * 	to, so that formatting straight into a caller's buffer needs no 
+ * 	wrapper object and allocates nothing.
+ * 
+ * For an Appendable, the position is only a count of the characters 
+ * 	written so far.  For the arrays, writing past the end throws an 
+ * 	ArrayIndexOutOfBoundsException, and whatever fit before it stays 
+ * 	written.
+ */
+final class FormatSink {
+	private FormatSink() {
+	}
+	
+	/*
+	 * Only an Appendable can actually throw the IOException.
+	 */
+	static int put(Object sink, int pos, char c) throws IOException {
+		if (sink instanceof char[]) {
+			((char[])sink)[pos] = c;
+		} else if (sink instanceof byte[]) {
+			((byte[])sink)[pos] = (byte)c;
+		} else {
+			((Appendable)sink).append(c);
+		}
+		return pos+1;
+	}
+	
+	static int put(Object sink, int pos, String s) throws IOException {
+		int n = s.length();
+		if (sink instanceof char[]) {
+			char[] c = (char[])sink;
+			for (int i=0; i<n; i++) {
+				c[pos+i] = s.charAt(i);
+			}
+		} else if (sink instanceof byte[]) {
+			byte[] b = (byte[])sink;
+			for (int i=0; i<n; i++) {
+				b[pos+i] = (byte)s.charAt(i);
+			}
+		} else {
+			((Appendable)sink).append(s);
+		}
+		return pos+n;
+	}
+	
+	static int put(Object sink, int pos, char[] chars) throws IOException {
+		int n = chars.length;
+		if (sink instanceof char[]) {
+			System.arraycopy(chars, 0, (char[])sink, pos, n);
+		} else if (sink instanceof byte[]) {
+			byte[] b = (byte[])sink;
+			for (int i=0; i<n; i++) {
+				b[pos+i] = (byte)chars[i];
+			}
+		} else {
+			Appendable a = (Appendable)sink;
+			for (int i=0; i<n; i++) {
+				a.append(chars[i]);
+			}
+		}
+		return pos+n;
+	}
+	
+	/*
+	 * "00" to "99" and "000" to "999", so that two or three digits are 
+	 * 	written with one division and a table lookup, not a division per 
+	 * 	digit.
+	 */
+	static final char[] DIGIT_PAIRS = digitTable(2, 100);
+	static final char[] DIGIT_TRIPLES = digitTable(3, 1000);
+	
+	private static char[] digitTable(int width, int count) {
+		char[] t = new char[width*count];
+		for (int i=0; i<count; i++) {
+			int v = i;
+			for (int j=width-1; j>=0; j--) {
+				t[i*width + j] = (char)('0' + v%10);
+				v /= 10;
+			}
+		}
+		return t;
+	}
+	
+	/*
+	 * Writes a value from 0 to 99 as two digits.  Like put3(), it checks 
+	 * 	the kind of sink once for the whole field, not once per digit.
+	 */
+	static int put2(Object sink, int pos, int value) throws IOException {
+		int i = 2*value;
+		char c0 = DIGIT_PAIRS[i];
+		char c1 = DIGIT_PAIRS[i+1];
+		if (sink instanceof char[]) {
+			char[] c = (char[])sink;
+			c[pos] = c0;
+			c[pos+1] = c1;
+		} else if (sink instanceof byte[]) {
+			byte[] b = (byte[])sink;
+			b[pos] = (byte)c0;
+			b[pos+1] = (byte)c1;
+		} else {
+			((Appendable)sink).append(c0).append(c1);
+		}
+		return pos+2;
+	}
+	
+	/*
+	 * Writes a value from 0 to 999 as three digits.
+	 */
+	static int put3(Object sink, int pos, int value) throws IOException {
+		int i = 3*value;
+		char c0 = DIGIT_TRIPLES[i];
+		char c1 = DIGIT_TRIPLES[i+1];
+		char c2 = DIGIT_TRIPLES[i+2];
+		if (sink instanceof char[]) {
+			char[] c = (char[])sink;
+			c[pos] = c0;
+			c[pos+1] = c1;
+			c[pos+2] = c2;
+		} else if (sink instanceof byte[]) {
+			byte[] b = (byte[])sink;
+			b[pos] = (byte)c0;
+			b[pos+1] = (byte)c1;
+			b[pos+2] = (byte)c2;
+		} else {
+			((Appendable)sink).append(c0).append(c1).append(c2);
+		}
+		return pos+3;
+	}
+	
+	/*
+	 * Writes a non-negative value (e.g., a year) in decimal, padded with 
+	 * 	leading zeroes to at least width digits.
+	 */
+	static int putDigits(Object sink, int pos, long value, int width) 
+			throws IOException {
+		long[] pow10 = Iso8601TimeParser.LONG_POW10;
+		int digits = 1;
+		while (digits < pow10.length && value >= pow10[digits]) {
+			digits++;
+		}
+		int rem = Math.max(digits, width);
+		for (; rem > pow10.length; rem--) {
+			pos = put(sink, pos, '0');
+		}
+		return putFixedDigits(sink, pos, value, rem);
+	}
+	
+	/*
+	 * Writes the last width digits (at most 19) of a non-negative value, 
+	 * 	so a value below 10^width comes out with leading zeroes, as for a
+	 * 	subsecond at a given precision.  The leading one or two digits come
+	 * 	first, and then the rest three at a time, so a four digit year is 
+	 * 	one digit and one triple, and milliseconds are one triple.
+	 */
+	static int putFixedDigits(Object sink, int pos, long value, int width) 
+			throws IOException {
+		long[] pow10 = Iso8601TimeParser.LONG_POW10;
+		int rem = width;
+		switch (rem % 3) {
+			case 1:
+				rem -= 1;
+				pos = put(sink, pos, (char)('0' + (value/pow10[rem])%10));
+				break;
+			case 2:
+				rem -= 2;
+				pos = put2(sink, pos, (int)((value/pow10[rem])%100));
+				break;
+		}
+		while (rem > 0) {
+			rem -= 3;
+			pos = put3(sink, pos, (int)((value/pow10[rem])%1000));
+		}
+		return pos;
+	}
+}
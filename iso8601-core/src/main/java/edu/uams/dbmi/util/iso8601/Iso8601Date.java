@@ -15,7 +15,10 @@
 package edu.uams.dbmi.util.iso8601;
 
 import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.TimeZone;
 
 import edu.uams.dbmi.util.iso8601.InconsistentIso8601DateException;
 
@@ -36,36 +39,45 @@ import edu.uams.dbmi.util.iso8601.InconsistentIso8601DateException;
  * 	year/month/day, you can call getDayOfYear() which will be computed
  * 	for you and returned.  Similarly for getWeekOfYear() and getDayOfWeek()).
  * 
- * The object is backed by an instance of java.util.GregorianCalendar which
- * 	you can obtain by calling getCalendarForDay() (for days) or 
+ * The object is backed by a count of days since 1970-01-01 on the proleptic
+ * 	Gregorian calendar (the Gregorian rules applied to every year, 
+ * 	including those before 1582), and all the conversions among the
+ * 	configurations are plain arithmetic.  You can obtain an equivalent 
+ * 	java.util.GregorianCalendar by calling getCalendarForDay() (for days) or 
  * 	getCalendarForFirstDayInInterval() (for weeks, months, years, and
  * 	centuries, which are longer than days, so we arbitrarily return a 
- * 	GregorianCalendar set to the first day in the interval).  The time and 
- * 	time zone of the GregorianCalendar instance are meaningless.
+ * 	GregorianCalendar set to the first day in the interval).  A new 
+ * 	calendar is created for each call.  The time and time zone of the 
+ * 	GregorianCalendar instance are meaningless.
  *  
  * @author williamhogan
  *
  */
-public class Iso8601Date {
-	int century;
-	int year;
-	int yearInt;
-	int month;
-	int dayOfMonth;
-	int weekOfYear;
-	int dayOfWeek;
-	int dayOfYear;
-	
-	int weekCalendarYear; //for cases where weeks 52 and 53 span New Year's Day
-	
-	boolean isDay = false;
-	boolean isWeek = false;
-	boolean isMonth = false;
-	boolean isYear = false;
-	boolean isCentury = false;
-	
-	DateConfiguration configuration;
-	GregorianCalendar calendar;
+public class Iso8601Date implements Comparable<Iso8601Date> {
+	/**
+	 * System properties for the range of years whose first days, first
+	 * 	ISO weeks, and leap and 53-week flags are kept in a table, filled in
+	 * 	as years are used, rather than computed each time.  Both are read 
+	 * 	once, when the table is first used; the defaults are -9999 and 
+	 * 	9999, and years beyond +/-50000 are never kept.
+	 */
+	public static final String YEAR_TABLE_MIN_PROPERTY = 
+		"edu.uams.dbmi.util.iso8601.yearTableMin";
+	public static final String YEAR_TABLE_MAX_PROPERTY = 
+		"edu.uams.dbmi.util.iso8601.yearTableMax";
+	
+	/*
+	 * The day represented, or the first day of the interval represented,
+	 * 	counted from 1970-01-01 on the proleptic Gregorian calendar.  All the
+	 * 	other fields are derived from it when the object is created, so that
+	 * 	the getters are simple field reads or a little arithmetic.
+	 */
+	final long epochDay;
+	final int year;
+	final int month;
+	final int dayOfMonth;
+	
+	final DateConfiguration configuration;
 	
 	public enum DateConfiguration {
 		CENTURY,
@@ -79,21 +91,13 @@ public class Iso8601Date {
 
 	/**
 	 *  Convenience constructor for getting the current date, per default
-	 *  	locale.
+	 *  	time zone.
 	 *  
 	 *  It will be a day-long interval (isDay() == true).
 	 *
 	 */
 	public Iso8601Date() {
-		isDay = true;
-		calendar = (GregorianCalendar)GregorianCalendar.getInstance();
-		calendar.setFirstDayOfWeek(Calendar.MONDAY);
-		calendar.setMinimalDaysInFirstWeek(4);
-		year = calendar.get(Calendar.YEAR);
-		month = calendar.get(Calendar.MONTH);
-		dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
-		configuration = DateConfiguration.YEAR_MONTH_DAY;
-		setWeekCalendarYear();
+		this(DateConfiguration.YEAR_MONTH_DAY, today());
 	}
 
 	/**
@@ -105,145 +109,7 @@ public class Iso8601Date {
 	 * @param param The parameter
 	 */
 	public Iso8601Date(DateConfiguration config, int param) {
-		if (config.equals(DateConfiguration.YEAR)) {
-			setYear(param);
-			isYear = true;
-		} else if (config.equals(DateConfiguration.CENTURY)) {
-			setCentury(param);
-			isCentury = true;
-		} else {
-			throw new IllegalArgumentException("The legal, single-parameter " +
-					"configurations are YEAR and CENTURY. (config=" + 
-					config + ")");
-		}
-		initialize(config);
-	}
-	
-	private void initialize(DateConfiguration config) {
-		configuration = config;
-		checkConsistency();
-		setupCalendar();
-	}
-
-	/*
-	 * In this method, we create a GregorianCalendar instance that corresponds
-	 * 	to either (1) the day represented (if it's specific to the day) or 
-	 *  (2) the first day of the interval represented (if it's longer than 
-	 *  one day, such as week, month, year, century).
-	 */
-	private void setupCalendar() {
-		calendar = (GregorianCalendar)GregorianCalendar.getInstance();
-		calendar.setFirstDayOfWeek(Calendar.MONDAY);
-		calendar.setMinimalDaysInFirstWeek(4);
-		switch (configuration) {
-			/*
-		 	 * If we have century or year, set calendar to Jan 1 of the year 
-		 	 *  (or the first year in the century).
-		 	 */
-			case CENTURY:
-			case YEAR:
-				calendar.set(year, 0, 1);
-				break;
-			/*
-			 * If we have a month, set calendar to first day of the month.
-			 */
-			case YEAR_MONTH:
-				/* 
-				 * It is (month-1) because the Calendar class and its
-				 *  derivatives use Jan==0, Feb==1, ... Dec==11. 
-				 */
-				calendar.set(year, month-1, 1);
-				break;
-			case YEAR_MONTH_DAY:
-				/* 
-				 * It is (month-1) because the Calendar class and its
-				 *  derivatives use Jan==0, Feb==1, ... Dec==11. 
-				 */
-				calendar.set(year, month-1, dayOfMonth);
-				setWeekCalendarYear();
-				break;
-			/*
-			 * If we have a day of the year, then it's easy: just set 
-			 * 	Calendar as you would normally otherwise.
-			 */
-			case YEAR_DAY_OF_YEAR:
-				calendar.set(Calendar.YEAR, year);
-				calendar.set(Calendar.DAY_OF_YEAR, dayOfYear);
-				setWeekCalendarYear();
-				break;
-			/*
-			 * If we have a week, set calendar to the first day of that week.
-			 */
-			case YEAR_WEEK:
-				initializeCalendar(year, weekOfYear, 1);
-				break;
-			/*
-			 * Again, this case is easy: set calendar to specified week and 
-			 *   day, noting that for ISO 8601, first day of week is Monday
-			 *   and there are at least 4 days from the first week of the 
-			 *   year within the current year.
-			 */
-			case YEAR_WEEK_DAY:
-				initializeCalendar(year, weekOfYear, dayOfWeek);
-				break;
-			default:
-				System.err.println("Unrecognized DateConfiguration: " + 
-						configuration);
-		}
-	}
-
-	private void setWeekCalendarYear() {
-		int mo = calendar.get(Calendar.MONTH) + 1;
-		int we = calendar.get(Calendar.WEEK_OF_YEAR);
-		/*
-		 * If we're in December, but we're being told it's week 1 of the year,
-		 * 	then the calendar year is one less than the week calendar year.
-		 * 
-		 * On the other hand, if we're in January, but we're being told that it
-		 * 	is week 52 or 53 of the year, then the calendar year is one greater
-		 * 	than the week calendar year.
-		 * 
-		 * Otherwise, the two are the same.
-		 */
-		if (mo == 12 && we == 1) {
-			weekCalendarYear = year + 1;
-		} else if (month == 1 && we > 51) {
-			weekCalendarYear = year - 1;
-		} else {
-			weekCalendarYear = year;
-		}
-		
-	}
-
-	/*
-	 * Method that initializes a java.util.GregorianCalendar object that
-	 * 	coincides with this ISO8601 date object.  We also use it to help
-	 * 	interconvert among various equivalent representations of 
-	 * 	particular days.
-	 */
-	private void initializeCalendar(int yr, int wOfY, int dOfW) {
-		calendar.set(Calendar.YEAR, yr);
-		calendar.set(Calendar.WEEK_OF_YEAR, wOfY);
-		int cDOfW = -1;
-		cDOfW = convertIsoDayOfWeekToCalendar(dOfW);
-		calendar.set(Calendar.DAY_OF_WEEK, cDOfW);	
-		
-		weekCalendarYear = yr;
-		if (yr != calendar.get(Calendar.YEAR)) {
-			//System.out.println(yr + "\t" + calendar.get(Calendar.YEAR));
-			year = calendar.get(Calendar.YEAR);
-		} else {
-			year = yr;
-		}
-	}
-
-	private void setCentury(int param) {
-		this. century = param;
-		setYear(this .century * 100);
-	}
-
-	private void setYear(int param) {
-		this .year = param;
+		this(config, firstDay(config, param));
 	}
 	
 	/**
@@ -257,118 +123,144 @@ public class Iso8601Date {
 	 * @param param2  The second parameter per the DateConfiguration
 	 */
 	public Iso8601Date(DateConfiguration config, int param1, int param2) {
+		this(config, firstDay(config, param1, param2));
+	}
+
+	/**
+	 * Create an ISO8601 date object of the given configuration that takes
+	 * 	three parameters (in particular, YEAR_WEEK_DAY and 
+	 * 	YEAR_MONTH_DAY.
+	 * 
+	 * @param config  The DateConfiguration that indicates what the two 
+	 * 	paramters represent.
+	 * @param param1  The first parameter per the DateConfiguration
+	 * @param param2  The second parameter per the DateConfiguration
+	 * @param param3  The third parameter per the DateConfiguration
+	 */
+	public Iso8601Date(DateConfiguration config, int param1, int param2, int param3) {
+		this(config, firstDay(config, param1, param2, param3));
+	}
+	
+	private Iso8601Date(DateConfiguration config, long epochDay) {
+		this. configuration = config;
+		this. epochDay = epochDay;
+		long ymd = EpochArithmetic.yearMonthDay(epochDay);
+		this. year = (int)EpochArithmetic.yearOf(ymd);
+		this. month = EpochArithmetic.monthOf(ymd);
+		this. dayOfMonth = EpochArithmetic.dayOfMonthOf(ymd);
+	}
+	
+	private static long today() {
+		long now = System.currentTimeMillis();
+		long local = now + TimeZone.getDefault().getOffset(now);
+		return EpochArithmetic.floorDiv(local, 
+				EpochArithmetic.SECONDS_PER_DAY*EpochArithmetic.MILLIS_PER_SECOND);
+	}
+
+	/*
+	 * The following methods check the parameters of each constructor, in 
+	 * 	the order the constructors always have, and return the epoch day of 
+	 * 	either (1) the day represented (if it's specific to the day) or 
+	 *  (2) the first day of the interval represented (if it's longer than 
+	 *  one day, such as week, month, year, century).
+	 */
+	private static long firstDay(DateConfiguration config, int param) {
+		if (config.equals(DateConfiguration.YEAR)) {
+			return EpochArithmetic.epochDay(param, 1, 1);
+		} else if (config.equals(DateConfiguration.CENTURY)) {
+			return EpochArithmetic.epochDay(param * 100L, 1, 1);
+		} else {
+			throw new IllegalArgumentException("The legal, single-parameter " +
+					"configurations are YEAR and CENTURY. (config=" + 
+					config + ")");
+		}
+	}
+	
+	private static long firstDay(DateConfiguration config, int param1, 
+			int param2) {
 		if (config.equals(DateConfiguration.YEAR_MONTH)) {
-			setYear(param1);
-			setMonth(param2);
-			isMonth = true;
+			checkMonth(param2);
+			return EpochArithmetic.epochDay(param1, param2, 1);
 		} else if (config.equals(DateConfiguration.YEAR_WEEK)) {
-			setYear(param1);
-			setWeek(param2);
-			isWeek = true;
+			checkWeek(param2);
+			checkYearWeekConsistency(param1, param2);
+			/*
+			 * If we have a week, the first day of the interval is the Monday
+			 * 	of that week.
+			 */
+			return EpochArithmetic.epochDayOfWeekDay(param1, param2, 1);
 		} else if (config.equals(DateConfiguration.YEAR_DAY_OF_YEAR)) {
-			setYear(param1);
-			setDayOfYear(param2);
-			isDay = true;
+			checkDayOfYear(param2);
+			checkYearDayOfYearConsistency(param1, param2);
+			return EpochArithmetic.epochDayOfYearDay(param1, param2);
 		} else {
 			throw new IllegalArgumentException("The legal, two-parameter " +
 					"configurations are YEAR_MONTH, YEAR_WEEK, and " +
 					"YEAR_DAY_OF_YEAR. (config=" + config + ")");
 		}
-		initialize(config);
+	}
+	
+	private static long firstDay(DateConfiguration config, int param1, 
+			int param2, int param3) {
+		if (config.equals(DateConfiguration.YEAR_MONTH_DAY)) {
+			checkMonth(param2);
+			checkDayOfMonth(param3);
+			checkYearMonthDayConsistency(param2, param3);
+			return EpochArithmetic.epochDay(param1, param2, param3);
+		} else if (config.equals(DateConfiguration.YEAR_WEEK_DAY)) {
+			checkWeek(param2);
+			checkDayOfWeek(param3);
+			checkYearWeekConsistency(param1, param2);
+			/*
+			 * Per ISO 8601, the first day of week is Monday and week 1 is
+			 *   the week with at least 4 of its days in the year (i.e., the
+			 *   week with January 4th in it).
+			 */
+			return EpochArithmetic.epochDayOfWeekDay(param1, param2, param3);
+		} else {
+			throw new IllegalArgumentException("The legal, three-parameter " +
+					"configurations are YEAR_MONTH_DAY and " +
+					"YEAR_WEEK_DAY. (config=" + config + ")");			
+		}
 	}
 
-	private void setMonth(int month) {
+	private static void checkMonth(int month) {
 		if (month < 1 || month > 12) {
 			throw new IllegalArgumentException("Month must be 1 through 12, " +
 					"inclusive.");
 		}
-		this. month = month;
 	}
 
-	private void setWeek(int week) {
+	private static void checkWeek(int week) {
 		if (week < 1 || week > 53) {
 			throw new IllegalArgumentException("Week must be 1 through 12, " +
 			"inclusive.");			
 		}
-		this. weekOfYear = week;
 	}
 
-	private void setDayOfYear(int day) {
+	private static void checkDayOfYear(int day) {
 		if (day < 1 || day > 366) {
 			throw new IllegalArgumentException("Day of year must be 1 " +
 					"through 366, inclusive.");
 		}
-		this. dayOfYear = day;
 	}
 
-	/**
-	 * Create an ISO8601 date object of the given configuration that takes
-	 * 	three parameters (in particular, YEAR_WEEK_DAY and 
-	 * 	YEAR_MONTH_DAY.
-	 * 
-	 * @param config  The DateConfiguration that indicates what the two 
-	 * 	paramters represent.
-	 * @param param1  The first parameter per the DateConfiguration
-	 * @param param2  The second parameter per the DateConfiguration
-	 * @param param3  The third parameter per the DateConfiguration
-	 */
-	public Iso8601Date(DateConfiguration config, int param1, int param2, int param3) {
-		if (config.equals(DateConfiguration.YEAR_MONTH_DAY)) {
-			setYear(param1);
-			setMonth(param2);
-			setDayOfMonth(param3);
-			isDay = true;
-		} else if (config.equals(DateConfiguration.YEAR_WEEK_DAY)) {
-			setYear(param1);
-			setWeek(param2);
-			setDayOfWeek(param3);
-			isDay = true;
-		} else {
-			throw new IllegalArgumentException("The legal, three-parameter " +
-					"configurations are YEAR_MONTH_DAY and " +
-					"YEAR_WEEK_DAY. (config=" + config + ")");			
-		}
-		initialize(config);
-	}
-
-	private void setDayOfMonth(int day) {
+	private static void checkDayOfMonth(int day) {
 		if (day < 1 || day > 31) {
 			throw new IllegalArgumentException("Day of month must be 1 " +
 			"through 31, inclusive.");
 		}
-		this. dayOfMonth = day;
 	}
 
-	private void setDayOfWeek(int day) {
+	private static void checkDayOfWeek(int day) {
 		if (day < 1 || day > 7) {
 			throw new IllegalArgumentException("Day of month must be 1 " +
 			"through 7, inclusive.");
 		}
-		this. dayOfWeek = day;	
 	}	
-	
-	private void checkConsistency() {
-		switch (configuration) {
-			case CENTURY:
-			case YEAR:
-			case YEAR_MONTH:
-				break;
-			case YEAR_MONTH_DAY:
-				checkYearMonthDayConsistency();
-				break;
-			case YEAR_WEEK:
-			case YEAR_WEEK_DAY:
-				checkYearWeekConsistency();
-				break;
-			case YEAR_DAY_OF_YEAR:
-				checkYearDayOfYearConsistency();
-				break;
-			default:
-				System.err.println("Unhandled enum: " + configuration);	
-		}
-	}
 
-	private void checkYearMonthDayConsistency() {
+	private static void checkYearMonthDayConsistency(int month, 
+			int dayOfMonth) {
 		/*
 		 * First, make sure day of month is consistent with month.  If month is
 		 *  February and day == 29, then check to see if it's a leap year.
@@ -395,7 +287,7 @@ public class Iso8601Date {
 		return ((monthCheck&1) == 1);
 	}
 
-	private void checkYearWeekConsistency() {
+	private static void checkYearWeekConsistency(int year, int weekOfYear) {
 		/*
 		 * If week <= 52, OK.  If week == 53, then we need to see if it's a
 		 * 	different week than week 1 of the following year.
@@ -406,7 +298,8 @@ public class Iso8601Date {
 		}
 	}
 
-	private void checkYearDayOfYearConsistency() {
+	private static void checkYearDayOfYearConsistency(int year, 
+			int dayOfYear) {
 		/*
 		 * If day <= 365, OK.  If day == 366, then we just need to see if it's
 		 *   a leap year.  If yes, consistent, if no, not consistent.
@@ -423,8 +316,7 @@ public class Iso8601Date {
 	 * @return true if year is a leap year, false otherwise.
 	 */
 	public static boolean isLeapYear(int year) {
-		return ((year % 4 == 0 && year % 100 != 0) || (year % 400 == 0) 
-				|| year == 0);
+		return YearTable.isLeapYear(year);
 	}
 	
 	/**
@@ -434,44 +326,36 @@ public class Iso8601Date {
 	 * 			otherwise.
 	 */
 	public static boolean is53WeekYear(int year) {
-		/*
-		 * With thanks to http://www.staff.science.uu.nl/~gent0113/calendar/isocalendar_text3.htm
-		 *		for this algorithm
-		 */
-		boolean has53;
-
-		int py = year + year/4 - year/100 + year/400;
-		has53 = (py % 7 == 4);
-		if (!has53) {
-			year--;
-			py = year + year/4 -year/100 + year/400;
-			has53 = (py % 7 == 3);
-		}
-		
-		return has53;
+		return YearTable.is53WeekYear(year);
+	}
+	
+	/**
+	 * 
+	 * @param year
+	 * @return The number of days from 1970-01-01 to week 1, day 1, as 
+	 * 			defined by ISO 8601, of the given year, on the proleptic
+	 * 			Gregorian calendar.
+	 */
+	public static long getIsoWeekOneDayOneEpochDayForYear(int year) {
+		return YearTable.weekOneDayOne(year);
 	}
 	
 	/**
 	 * 
 	 * @param year
 	 * @return A GregorianCalendar set to week 1, day 1, as defined by ISO
-	 *  		8601, of the given year.
+	 *  		8601, of the given year.  getIsoWeekOneDayOneEpochDayForYear() 
+	 *  		gives the same day without building a calendar.
 	 */
 	public static GregorianCalendar getIsoWeekOneDayOneForYear(int year) {
-		/*
-		 * The first ISO week of the year always includes January 4th, per the
-		 *   standard itself.
-		 *   
-		 *   I have verified that the following method, as discussed in the 
-		 *   javadoc for java.util.Calendar, is completely equivalent to the 
-		 *   January 4th method.
-		 */
+		long ymd = EpochArithmetic.yearMonthDay(
+				YearTable.weekOneDayOne(year));
 		GregorianCalendar c = (GregorianCalendar)GregorianCalendar.getInstance();
 		c.setFirstDayOfWeek(Calendar.MONDAY);
 		c.setMinimalDaysInFirstWeek(4);
-		c.set(Calendar.YEAR, year);
-		c.set(Calendar.WEEK_OF_YEAR, 1);
-		c.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
+		c.set((int)EpochArithmetic.yearOf(ymd), 
+				EpochArithmetic.monthOf(ymd) - 1, 
+				EpochArithmetic.dayOfMonthOf(ymd));
 		return c;
 	}
 	
@@ -484,12 +368,12 @@ public class Iso8601Date {
 	 * 			isDay() method to check first.
 	 */
 	public GregorianCalendar getCalendarForFirstDayInInterval() {
-		if (isDay) {
+		if (isDay()) {
 			throw new IllegalStateException("This date object does not " +
 					"represent a multi-day interval, so \"first day\" has " +
 					"no meaning. Use \"get day\" instead.");
 		}
-		return calendar;
+		return buildCalendar();
 	}
 	
 	/**
@@ -501,12 +385,33 @@ public class Iso8601Date {
 	 * 			isDay() method to check first.
 	 */
 	public GregorianCalendar getCalendarForDay() {
-		if (!isDay) {
+		if (!isDay()) {
 			throw new IllegalStateException("This date object does not " +
 					"represent a single-day interval, so \"get day\" has " +
 					"no meaning.  Use \"get first day\" instead.");
 		}
-		return calendar;		
+		return buildCalendar();		
+	}
+	
+	/*
+	 * A new calendar is built on every call, so nothing is allocated for
+	 * 	callers that never ask for one, and callers are free to modify the
+	 * 	calendar they get.  It is proleptic Gregorian (no switch to the 
+	 * 	Julian calendar in 1582), like the arithmetic behind this object, and
+	 * 	set to midnight of the day in the default time zone.
+	 */
+	private GregorianCalendar buildCalendar() {
+		GregorianCalendar c = new GregorianCalendar();
+		c.setGregorianChange(new Date(Long.MIN_VALUE));
+		c.setFirstDayOfWeek(Calendar.MONDAY);
+		c.setMinimalDaysInFirstWeek(4);
+		c.clear();
+		/* 
+		 * It is (month-1) because the Calendar class and its
+		 *  derivatives use Jan==0, Feb==1, ... Dec==11. 
+		 */
+		c.set(year, month-1, dayOfMonth);
+		return c;
 	}
 	
 	/**
@@ -514,7 +419,9 @@ public class Iso8601Date {
 	 * @return true if this object represents a day interval, false otherwise.
 	 */
 	public boolean isDay() {
-		return isDay;
+		return configuration == DateConfiguration.YEAR_MONTH_DAY ||
+				configuration == DateConfiguration.YEAR_WEEK_DAY ||
+				configuration == DateConfiguration.YEAR_DAY_OF_YEAR;
 	}
 	
 	/**
@@ -523,7 +430,7 @@ public class Iso8601Date {
 	 * 			otherwise.
 	 */
 	public boolean isWeek() {
-		return isWeek;
+		return configuration == DateConfiguration.YEAR_WEEK;
 	}
 	
 	/**
@@ -532,7 +439,7 @@ public class Iso8601Date {
 	 * 			otherwise.
 	 */
 	public boolean isMonth() {
-		return isMonth;
+		return configuration == DateConfiguration.YEAR_MONTH;
 	}
 	
 	/**
@@ -541,7 +448,7 @@ public class Iso8601Date {
 	 * 			otherwise.
 	 */
 	public boolean isYear() {
-		return isYear;
+		return configuration == DateConfiguration.YEAR;
 	}
 	
 	/**
@@ -550,14 +457,11 @@ public class Iso8601Date {
 	 * 			otherwise.
 	 */
 	public boolean isCentury() {
-		return isCentury;
+		return configuration == DateConfiguration.CENTURY;
 	}
 	
 	public int getCentury() {
-		if (this .century == 0) {
-			this .century = year/100;
-		}
-		return this .century;
+		return year/100;
 	}
 	
 	/**
@@ -588,7 +492,11 @@ public class Iso8601Date {
 			throw new IllegalStateException("This Iso8601Date object " +
 			"represents an entire century and not a specific year.");
 		}
-		return weekCalendarYear;
+		/*
+		 * Only weeks and days belong to a week calendar year.
+		 */
+		return (isDay() || isWeek()) ? 
+				(int)EpochArithmetic.weekBasedYear(epochDay) : 0;
 	}
 	
 	/**
@@ -624,9 +532,6 @@ public class Iso8601Date {
 					"represents a type of week that can span months and " +
 					"even the " +
 					"change from one year to another.");
-		} else if (configuration.equals(DateConfiguration.YEAR_WEEK_DAY) ||
-				configuration.equals(DateConfiguration.YEAR_DAY_OF_YEAR)) {
-			month = calendar.get(Calendar.MONTH) + 1;
 		}
 		return month;
 	}
@@ -634,39 +539,38 @@ public class Iso8601Date {
 	/**
 	 * For representations of days, get the day of the month.  If this object
 	 * 	was initialized as YEAR_WEEK_DAY or YEAR_DAY_OF_YEAR, then this value
-	 *  is computed using java.util.GregorianCalendar.
+	 *  is computed from the day's epoch day when the object is created.
 	 *  
 	 * @return  The day of the month
 	 */
 	public int getDayOfMonth() {
-		if (!isDay) {
+		if (!isDay()) {
 			throw new IllegalStateException("This Iso8601 object does not " +
 					"represent a day.");
 		}
-		return calendar.get(Calendar.DAY_OF_MONTH);
+		return dayOfMonth;
 	}
 	
 	/**
 	 * For representations of days, get the day of the week.  If this object
 	 * 	was initialized as YEAR_MONTH_DAY or YEAR_DAY_OF_YEAR, then this value
-	 *  is computed using java.util.GregorianCalendar, and converted to the 
-	 *  ISO 8601 integer value for days of the week (Mon==1, ..., Sun==7).
+	 *  is computed from the day's epoch day, as the ISO 8601 integer value
+	 *  for days of the week (Mon==1, ..., Sun==7).
 	 *  
 	 * @return The day of the week
 	 */
 	public int getDayOfWeek() {
-		if (!isDay) {
+		if (!isDay()) {
 			throw new IllegalStateException("This Iso8601 object does not " +
 					"represent a day.");
 		}
-		return convertCalendarDayOfWeekToIso(
-				calendar.get(Calendar.DAY_OF_WEEK));
+		return EpochArithmetic.isoDayOfWeek(epochDay);
 	}
 	
 	/**
 	 * 	For representations of days, get the day of the year.  If this object
 	 * 	was initialized as YEAR_MONTH_DAY or YEAR_WEEK_DAY, then this value
-	 *  is computed using java.util.GregorianCalendar.  
+	 *  is computed from the day's epoch day.  
 	 *  
 	 *  Note that for week 1 of the year, some days actually occur in the 
 	 *  previous calendar year. For example 2008-W01-1 is Dec 31st, 2007. So,
@@ -675,11 +579,11 @@ public class Iso8601Date {
 	 * @return The day of the year.
 	 */
 	public int getDayOfYear() {
-		if (!isDay) {
+		if (!isDay()) {
 			throw new IllegalStateException("This Iso8601 object does not " +
 					"represent a day.");
 		}		
-		return calendar.get(Calendar.DAY_OF_YEAR);
+		return EpochArithmetic.dayOfYearOfEpochDay(epochDay);
 	}
 	
 	/**
@@ -774,10 +678,8 @@ public class Iso8601Date {
 
 	public int getWeekOfYear() {
 		int wOfY;
-		if (isDay) {
-			wOfY = calendar.get(Calendar.WEEK_OF_YEAR);
-		} else if (isWeek) {
-			wOfY = weekOfYear;			
+		if (isDay() || isWeek()) {
+			wOfY = EpochArithmetic.isoWeekOfYear(epochDay);
 		} else {
 			throw new IllegalStateException("This Iso8601Date object " +
 					"represents an interval longer than a week");
@@ -785,37 +687,122 @@ public class Iso8601Date {
 		return wOfY;
 	}
 	
+	/**
+	 * 
+	 * @return The number of days from 1970-01-01 to the day represented, or
+	 * 			to the first day of the interval represented, on the 
+	 * 			proleptic Gregorian calendar
+	 */
+	public long getIntervalStartEpochDay() {
+		return epochDay;
+	}
+	
+	/**
+	 * 
+	 * @return The epoch day (see getIntervalStartEpochDay()) of the last day
+	 * 			of the interval represented, so for a day it is the same as
+	 * 			the start
+	 */
+	public long getIntervalEndEpochDay() {
+		switch (configuration) {
+			case CENTURY:
+				return EpochArithmetic.epochDay(year + 100L, 1, 1) - 1;
+			case YEAR:
+				return EpochArithmetic.epochDay(year + 1L, 1, 1) - 1;
+			case YEAR_MONTH:
+				return (month == 12) ? 
+						EpochArithmetic.epochDay(year + 1L, 1, 1) - 1 :
+						EpochArithmetic.epochDay(year, month + 1, 1) - 1;
+			case YEAR_WEEK:
+				return epochDay + 6;
+			default:
+				return epochDay;
+		}
+	}
+	
+	/*
+	 * 0 for a century, 1 a year, 2 a month, 3 a week, 4 a day, so coarser
+	 * 	intervals have smaller numbers.
+	 */
+	private int granularity() {
+		switch (configuration) {
+			case CENTURY:
+				return 0;
+			case YEAR:
+				return 1;
+			case YEAR_MONTH:
+				return 2;
+			case YEAR_WEEK:
+				return 3;
+			default:
+				return 4;
+		}
+	}
+	
+	/**
+	 * Two dates are equal if they are the same century, year, month, week,
+	 * 	or day.  Days are equal however they were configured (e.g., 
+	 * 	2011-11-11 equals 2011-315), but a day never equals a week, etc.
+	 */
 	@Override
 	public boolean equals(Object o) {
 		boolean eq = false;
 		if (o instanceof Iso8601Date) {
 			Iso8601Date d = (Iso8601Date)o;
-			eq = centuryEquals(d) || yearEquals(d) || monthEquals(d) ||
-				weekEquals(d) || dayEquals(d);
+			eq = (epochDay == d.epochDay && granularity() == d.granularity());
 		}
 		return eq;
 	}
 	
-	private boolean centuryEquals(Iso8601Date d) {
-		return (isCentury() && d.isCentury() && century == d.century);
+	@Override
+	public int hashCode() {
+		int h = (int)(epochDay ^ (epochDay >>> 32));
+		return 31*h + granularity();
 	}
 	
-	private boolean yearEquals(Iso8601Date d) {
-		return (isYear() && d.isYear() && year == d.year);
+	/**
+	 * Orders dates by their first day, and dates with the same first day
+	 * 	from the longest interval to the shortest (so 2011 comes before 
+	 * 	2011-01, which comes before 2011-01-01), as their ISO 8601 strings
+	 * 	sort.  Consistent with equals().
+	 */
+	public int compareTo(Iso8601Date d) {
+		return compare(this, d, true);
 	}
 	
-	private boolean monthEquals(Iso8601Date d) {
-		return (getYear() == d.getYear() && isMonth() && d.isMonth() && 
-				getMonth() == d.getMonth());
-	}
-
-	private boolean weekEquals(Iso8601Date d) {
-		return (getYear() == d.getYear() && isWeek() && d.isWeek() && 
-				getWeekOfYear() == d.getWeekOfYear());
+	/**
+	 * 
+	 * @param coarserFirst Whether, among dates with the same first day, 
+	 * 			longer intervals come first (as in compareTo()) or last
+	 * @return A comparator that orders dates by their first day, then by
+	 * 			the length of the interval.  The same instance is returned 
+	 * 			on every call.
+	 */
+	public static Comparator<Iso8601Date> instantOrder(boolean coarserFirst) {
+		return (coarserFirst) ? COARSER_FIRST : FINER_FIRST;
 	}
-
-	private boolean dayEquals(Iso8601Date d) {
-		return (getYear() == d.getYear() && isDay() && d.isDay() && 
-				getDayOfYear() == d.getDayOfYear());
+	
+	private static final Comparator<Iso8601Date> COARSER_FIRST = 
+			new Comparator<Iso8601Date>() {
+		public int compare(Iso8601Date d1, Iso8601Date d2) {
+			return Iso8601Date.compare(d1, d2, true);
+		}
+	};
+	
+	private static final Comparator<Iso8601Date> FINER_FIRST = 
+			new Comparator<Iso8601Date>() {
+		public int compare(Iso8601Date d1, Iso8601Date d2) {
+			return Iso8601Date.compare(d1, d2, false);
+		}
+	};
+	
+	static int compare(Iso8601Date d1, Iso8601Date d2, boolean coarserFirst) {
+		int c = Long.compare(d1.epochDay, d2.epochDay);
+		if (c == 0) {
+			c = (coarserFirst) ? 
+					Integer.compare(d1.granularity(), d2.granularity()) :
+					Integer.compare(d2.granularity(), d1.granularity());
+		}
+		return c;
 	}
 }
@@ -0,0 +1,286 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.io.IOException;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+public class Iso8601DateFormatter {
+	
+	/*
+	 * A private copy of the options, taken when the formatter is built, so 
+	 * 	changing the caller's FormatOptions afterwards has no effect.  
+	 * 	Formatters hold no other state (each call writes into its own 
+	 * 	buffer), so a single instance can be shared by any number of 
+	 * 	threads.
+	 */
+	final FormatOptions options;
+	
+
+	public static class FormatOptions implements Cloneable {
+		boolean extended;
+		boolean forceSignedYear;
+		int yearDigits;
+		Iso8601Date.DateConfiguration config;
+		
+		public FormatOptions() {
+		}
+		
+		public void setExtended(boolean extended) {
+			this. extended = extended;
+		}
+		
+		public boolean isExtended() {
+			return extended;
+		}
+		
+		public void setForceSignedYear(boolean force) {
+			this. forceSignedYear = force;
+		}
+		
+		public boolean isForceSignedYear() {
+			return forceSignedYear;
+		}
+		
+		public void setYearDigits(int yrDigits) {
+			if (yrDigits < 4) {
+				throw new IllegalArgumentException("Must be at least 4 digit year.");
+			}
+			this. yearDigits = yrDigits;
+		}
+		
+		public int getYearDigits() {
+			return yearDigits;
+		}
+		
+		public void setConfiguration(Iso8601Date.DateConfiguration config) {
+			this.config = config;
+		}
+		
+		public Iso8601Date.DateConfiguration getConfiguration() {
+			return config;
+		}
+		
+		public Object clone() {
+			try {
+				return super.clone();
+			} catch (CloneNotSupportedException e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * By default, creates FormatOptions object initialized as follows:
+	 * 		extended = true
+	 * 		force signed year = false
+	 * 		# digits for year = 4
+	 * 		year month day format (as opposed to Year week day, etc).
+	 */
+	public Iso8601DateFormatter() {
+		FormatOptions o = new FormatOptions();
+		o.setForceSignedYear(false);
+		o.setExtended(true);
+		o.setYearDigits(4);
+		o.setConfiguration(DateConfiguration.YEAR_MONTH_DAY);
+		this. options = o;
+	}
+	
+	public Iso8601DateFormatter(FormatOptions options) {
+		this. options = (FormatOptions)options.clone();
+	}
+	
+	public String format(Iso8601Date d) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			write(d, sb, 0);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Formats the date straight into an Appendable (e.g., a Writer or a 
+	 * 	StringBuilder), without building a String first.
+	 * 
+	 * @return The number of characters written
+	 * @throws IOException if the Appendable does
+	 */
+	public int formatTo(Iso8601Date d, Appendable out) throws IOException {
+		return write(d, out, 0);
+	}
+	
+	/**
+	 * Formats the date into a char[], starting at offset.
+	 * 
+	 * @return The number of characters written
+	 * @throws ArrayIndexOutOfBoundsException if the text does not fit
+	 */
+	public int formatTo(Iso8601Date d, char[] buf, int offset) {
+		try {
+			return write(d, buf, offset) - offset;
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+	
+	/**
+	 * Formats the date into a byte[] as ASCII, starting at offset.
+	 * 
+	 * @return The number of bytes written
+	 * @throws ArrayIndexOutOfBoundsException if the text does not fit
+	 */
+	public int formatTo(Iso8601Date d, byte[] buf, int offset) {
+		try {
+			return write(d, buf, offset) - offset;
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+	
+	/*
+	 * Writes the date to a FormatSink at pos, and returns the position 
+	 * 	after it.  Throws an IllegalArgumentException, before writing 
+	 * 	anything, if the date and the configuration are incompatible.
+	 */
+	int write(Iso8601Date d, Object sink, int pos) throws IOException {
+		if (!checkCompatibilityWithFormatConfiguration(d)) {
+			throw new IllegalArgumentException("Granularity of format " +
+					"option and of date are incompatible.");
+		}
+		switch (options.getConfiguration()) {
+			case CENTURY:
+				pos = addYearOrCentury(sink, pos, d.getCentury(), 
+						options.getYearDigits()-2);
+				break;
+			case YEAR:
+				pos = addYearOrCentury(sink, pos, d.getYear(), 
+						options.getYearDigits());
+				break;
+			case YEAR_MONTH:
+				pos = addYearOrCentury(sink, pos, d.getYear(), 
+						options.getYearDigits());
+				pos = addMonth(sink, pos, d.getMonth());
+				break;
+			case YEAR_WEEK:
+				pos = addYearOrCentury(sink, pos, d.getWeekCalendarYear(), 
+						options.getYearDigits());
+				pos = addWeekOfYear(sink, pos, d.getWeekOfYear());
+				break;
+			case YEAR_MONTH_DAY:
+				pos = addYearOrCentury(sink, pos, d.getYear(), 
+						options.getYearDigits());
+				pos = addMonth(sink, pos, d.getMonth());
+				pos = addDayOfMonth(sink, pos, d.getDayOfMonth());
+				break;
+			case YEAR_DAY_OF_YEAR:
+				pos = addYearOrCentury(sink, pos, d.getYear(), 
+						options.getYearDigits());
+				pos = addDayOfYear(sink, pos, d.getDayOfYear());
+				break;
+			case YEAR_WEEK_DAY:
+				pos = addYearOrCentury(sink, pos, d.getWeekCalendarYear(), 
+						options.getYearDigits());
+				pos = addWeekOfYear(sink, pos, d.getWeekOfYear());
+				pos = addDayOfWeek(sink, pos, d.getDayOfWeek());
+				break;
+		}
+		return pos;
+	}
+
+	/*
+	 * If we're asked to use year/month/day format, but the Iso8601Date
+	 * 	object represents an interval with duration > 1 day, then we
+	 * 	cannot do it because we don't have the day of month (or a 
+	 * 	particular day of month).
+	 * 
+	 * So, we need to make sure the format requested matches the date.
+	 *
+	 * We don't just want to assume the DateConfiguration in the Iso8601Date
+	 * 	object itself because despite how the object was initialized, we may
+	 *  want to format it a different way!  Flexibility.
+	 */
+	private boolean checkCompatibilityWithFormatConfiguration(Iso8601Date d) {
+		boolean ok = false;
+
+		switch (options.getConfiguration()) {
+			case CENTURY:
+				ok = true;
+				break;
+			case YEAR:
+				ok = !d.isCentury();
+				break;
+			case YEAR_MONTH:
+				ok = !(d.isCentury() || d.isYear());
+				break;
+			case YEAR_WEEK:
+				ok = d.isWeek() || d.isDay();
+				break;
+			case YEAR_DAY_OF_YEAR:
+			case YEAR_MONTH_DAY:
+			case YEAR_WEEK_DAY:
+				ok = d.isDay();
+				break;
+		}
+		return ok;
+	}
+
+	private int addYearOrCentury(Object sink, int pos, int val, int len) 
+			throws IOException {
+		if (options.isForceSignedYear() && val > -1) {
+			pos = FormatSink.put(sink, pos, '+');
+		} else if (val < 0) {
+			pos = FormatSink.put(sink, pos, '-');
+		}
+		return FormatSink.putDigits(sink, pos, Math.abs((long)val), len);
+	}
+	
+	private int addSeparator(Object sink, int pos) throws IOException {
+		return (options.isExtended()) ? FormatSink.put(sink, pos, '-') : pos;
+	}
+	
+	private int addMonth(Object sink, int pos, int month) throws IOException {
+		pos = addSeparator(sink, pos);
+		return FormatSink.put2(sink, pos, month);
+	}
+	
+	private int addDayOfMonth(Object sink, int pos, int day) 
+			throws IOException {
+		pos = addSeparator(sink, pos);
+		return FormatSink.put2(sink, pos, day);
+	}
+	
+	private int addDayOfWeek(Object sink, int pos, int day) 
+			throws IOException {
+		pos = addSeparator(sink, pos);
+		return FormatSink.put(sink, pos, (char)('0' + day));
+	}
+	
+	private int addWeekOfYear(Object sink, int pos, int week) 
+			throws IOException {
+		pos = addSeparator(sink, pos);
+		pos = FormatSink.put(sink, pos, 'W');
+		return FormatSink.put2(sink, pos, week);
+	}
+	
+	private int addDayOfYear(Object sink, int pos, int day) 
+			throws IOException {
+		pos = addSeparator(sink, pos);
+		return FormatSink.put3(sink, pos, day);
+	}
+}
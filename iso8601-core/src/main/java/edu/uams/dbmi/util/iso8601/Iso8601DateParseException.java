@@ -35,5 +35,17 @@ public class Iso8601DateParseException extends Exception {
 	public Iso8601DateParseException(String arg0, Throwable arg1) {
 		super(arg0, arg1);
 	}
+	
+	/**
+	 * 
+	 * @param message  The detail message
+	 * @param writableStackTrace  If false, no stack trace is captured, 
+	 * 			which makes the exception far cheaper to create.  The 
+	 * 			parsers pass false when the system property named by 
+	 * 			Iso8601ParseResult.STACKLESS_EXCEPTIONS_PROPERTY is "true".
+	 */
+	public Iso8601DateParseException(String message, boolean writableStackTrace) {
+		super(message, null, false, writableStackTrace);
+	}
 
 }
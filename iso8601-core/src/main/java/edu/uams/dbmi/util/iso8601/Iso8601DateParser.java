@@ -0,0 +1,703 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+
+
+public class Iso8601DateParser {
+	
+	/*
+	 * All of these are fixed when the parser is constructed.  Parsers hold
+	 * 	no other state, so a single instance can be shared by any number of
+	 * 	threads.
+	 */
+	final int cLen;			//length of string for just CC
+	final int yLen;			//length of string for just CCDY
+	
+	final int ymLen;		//length of string for CCDYMM
+	final int ymhLen;		//length of string for CCDY-MM
+	final int ymdLen;		//length of string for CCDYMMDD
+	final int ymdhLen;		//length of string for CCDY-MM-DD
+	
+	final int yWwLen;		//length of string for CCDYWww
+	final int yWwhLen; 		//length of string for CCDY-Www
+	final int yWwdLen; 		//length of string for CCDYWwwd
+	final int yWwdhLen;		//length of string for CCDY-Www-d
+	
+	final int ydLen; 		//length of string for CCDYddd
+	final int ydhLen; 		//length of string for CCDY-ddd
+	
+	/*
+	 *  Format for dates may be:
+	 *	CC			e.g., 19 for beginning of 1900 to end of 1999
+	 *	CCDY		e.g,  2011 for current year
+	 *	CCDYMM		e.g., 201109 for current month of current year (dash may separate Y and MM)
+	 *	CCDYMMDD	e.g., 20110924 for today (dash may separate MM and DD)
+	 *				  this format represents a day, and thus allows time of day to follow in DateTime
+	 *	CCDY'W'ww	e.g., 2011W38 for current week of year (dash may separate Y and 'W')
+	 *	CCDY'W'wwd	e.g., 2011W386 for today (dash may separate ww and d)
+	 *				  this format represents a day, and thus allows time of day to follow in DateTime
+	 *	CCDYddd		e.g., 2011267 for today (dash may separate Y and ddd)
+	 *				  this format represents a day, and thus allows time of day to follow in DateTime
+	 *
+	 *	Also, for any of these formats, the CC may be preceded by a '+' or '-'.
+	 *	Also, whenever a dash is used in one position where it's permitted, it MUST be used in all positions
+	 *		where it's permitted.
+	 *
+	 *	? any others?
+	 *
+	 *	Note: the standard allows additional digits for years by mutual agreement of sender and receiver
+	 *		of data.  We flex the class by having an additional parameter that is the number of 
+	 *		extra year digits permitted by the parser, and adjust the parser behavior accordingly.
+	 *		
+	 *		For example, in the case where sender/receiver decide to include 2 extra digits, the sequence
+	 *		201109 would be interpreted as the year 201,109 instead of year 2011 and month 09.
+	 */
+	final int extraYearDigits;
+	
+	/*
+	 * The parsing engine (scan()) walks the characters once, by index, and
+	 * 	returns everything it found packed into a single long, so that the
+	 * 	only object a successful parse ever creates is the Iso8601Date 
+	 * 	itself.  The layout is:
+	 * 
+	 * 	bits  0- 6	third field (day of month or day of week)
+	 * 	bits  7-16	second field (month, week of year, or day of year)
+	 * 	bits 17-19	ordinal of the DateConfiguration, or CONFIG_ERROR
+	 * 	bit  20		set if the extended (hyphenated) format was used
+	 * 	bits 21-63	signed year (or century, for CENTURY)
+	 * 
+	 * The fields are wide enough to hold any two- or three-digit value, so
+	 * 	out-of-range values (e.g., month 13) reach the Iso8601Date 
+	 * 	constructors intact and are rejected there, just as before.
+	 * 
+	 * When the configuration is CONFIG_ERROR, the second field holds one of
+	 * 	the ERR_* codes and the year field holds the index of the character
+	 * 	at which parsing failed.
+	 * 
+	 * PackedIso8601Date publishes the same layout, with bit 20 always 0.
+	 */
+	static final int FIELD2_SHIFT = 7;
+	static final int CONFIG_SHIFT = 17;
+	static final int EXTENDED_SHIFT = 20;
+	static final int YEAR_SHIFT = 21;
+	
+	static final int FIELD3_MASK = 0x7f;
+	static final int FIELD2_MASK = 0x3ff;
+	static final int CONFIG_MASK = 0x7;
+	
+	static final int CONFIG_ERROR = 7;
+	
+	static final int ERR_ILLEGAL_FORMAT = 1;
+	static final int ERR_WEEK_FORMAT = 2;
+	static final int ERR_HYPHENATED_FORMAT = 3;
+	
+	static final DateConfiguration[] CONFIGURATIONS = DateConfiguration.values();
+
+	public Iso8601DateParser() {
+		this(0, false);
+	}
+
+	public Iso8601DateParser(int extraYearDigits) {
+		this(extraYearDigits, true);
+	}
+	
+	private Iso8601DateParser(int extraYearDigits, boolean check) {
+		if (check && extraYearDigits < 1) {
+			throw new IllegalArgumentException("Must specify at least 1 extra digit for year (" +
+				extraYearDigits + ")");
+		}
+		this. extraYearDigits = extraYearDigits;
+		
+		cLen = 2 + extraYearDigits;
+		yLen = 4 + extraYearDigits;
+		
+		ymLen = 6 + extraYearDigits;
+		ymhLen = 7 + extraYearDigits;
+		ymdLen = 8 + extraYearDigits;
+		ymdhLen = 10 + extraYearDigits;
+		
+		yWwLen = 7 + extraYearDigits;
+		yWwhLen = 8 + extraYearDigits;
+		yWwdLen = 8 + extraYearDigits;
+		yWwdhLen = 10 + extraYearDigits;
+		
+		ydLen = 7 + extraYearDigits;
+		ydhLen = 8 + extraYearDigits;
+	}
+	
+	public int getExtraYearDigits() {
+		return extraYearDigits;
+	}
+
+	public Iso8601Date parse(String s) throws Iso8601DateParseException {
+		return parse(s, 0, s.length());
+	}
+	
+	/**
+	 * Parses the date in s[start, end) in place, so that a date embedded
+	 * 	in a larger record (or sitting in a StringBuilder) need not be 
+	 * 	copied out into its own String first.
+	 * 
+	 * @param s  The characters containing the date
+	 * @param start  Index of the first character of the date
+	 * @param end  Index just past the last character of the date
+	 * @return The parsed date
+	 * @throws Iso8601DateParseException
+	 */
+	public Iso8601Date parse(CharSequence s, int start, int end) 
+			throws Iso8601DateParseException {
+		checkRange(s.length(), start, end);
+		long packed = scan(s, start, end);
+		if (getConfigurationCode(packed) == CONFIG_ERROR) {
+			throw createException(s, start, end, packed);
+		}
+		return toDate(packed);
+	}
+	
+	/**
+	 * Parses the date in s[start, end) in place, and records in result
+	 * 	whether it was in basic or extended format.
+	 * 
+	 * @param s  The characters containing the date
+	 * @param start  Index of the first character of the date
+	 * @param end  Index just past the last character of the date
+	 * @param result  Receives the parsed fields and format flags
+	 * @return The parsed date
+	 * @throws Iso8601DateParseException
+	 */
+	public Iso8601Date parse(CharSequence s, int start, int end, 
+			Iso8601ParseResult result) throws Iso8601DateParseException {
+		checkRange(s.length(), start, end);
+		result.reset();
+		long packed = scan(s, start, end);
+		if (getConfigurationCode(packed) == CONFIG_ERROR) {
+			throw createException(s, start, end, packed);
+		}
+		setDate(result, packed);
+		return toDate(packed);
+	}
+	
+	/**
+	 * Parses the date in s without throwing.  See 
+	 * 	tryParse(CharSequence, int, int, Iso8601ParseResult).
+	 * 
+	 * @param s  The date
+	 * @param result  Receives the format flags, or the error code and index
+	 * @return The parsed date, or null if s is not a legal date
+	 */
+	public Iso8601Date tryParse(String s, Iso8601ParseResult result) {
+		return tryParse(s, 0, s.length(), result);
+	}
+	
+	/**
+	 * Parses the date in s[start, end) without throwing, for input in 
+	 * 	which bad dates are routine.  A bad date costs about what a good 
+	 * 	one does: instead of an exception, null is returned, and 
+	 * 	result.getErrorCode() and result.getErrorIndex() say what was 
+	 * 	wrong and where.
+	 * 
+	 * @param s  The characters containing the date
+	 * @param start  Index of the first character of the date
+	 * @param end  Index just past the last character of the date
+	 * @param result  Receives the format flags, or the error code and index
+	 * @return The parsed date, or null if s[start, end) is not a legal date
+	 */
+	public Iso8601Date tryParse(CharSequence s, int start, int end,
+			Iso8601ParseResult result) {
+		checkRange(s.length(), start, end);
+		result.reset();
+		long packed = scan(s, start, end);
+		if (getConfigurationCode(packed) == CONFIG_ERROR) {
+			result.fail(Iso8601ParseResult.DATE_FORMAT, getErrorIndex(packed));
+			return null;
+		}
+		if (!isValid(packed)) {
+			result.fail(Iso8601ParseResult.DATE_VALUE, start);
+			return null;
+		}
+		setDate(result, packed);
+		return toDate(packed);
+	}
+	
+	/*
+	 * Centuries and years have no separators in either format, so they are 
+	 * 	consistent with the extended format either way.
+	 */
+	static void setDate(Iso8601ParseResult r, long packed) {
+		r.hasDate = true;
+		r.packedDate = packed;
+		r.extended = isExtended(packed);
+		int config = getConfigurationCode(packed);
+		r.extendedConsistent = r.extended || 
+				config == DateConfiguration.CENTURY.ordinal() ||
+				config == DateConfiguration.YEAR.ordinal();
+	}
+	
+	/**
+	 * Parses the date in buf[offset, offset+length) in place.
+	 * 
+	 * @param buf  The buffer containing the date
+	 * @param offset  Index of the first character of the date
+	 * @param length  Number of characters in the date
+	 * @return The parsed date
+	 * @throws Iso8601DateParseException
+	 */
+	public Iso8601Date parse(char[] buf, int offset, int length) 
+			throws Iso8601DateParseException {
+		checkRange(buf.length, offset, offset+length);
+		return parse(CharBuffer.wrap(buf), offset, offset+length);
+	}
+	
+	/**
+	 * Parses the date in the ASCII bytes buf[offset, offset+length) 
+	 * 	directly, without decoding them into a String.
+	 * 
+	 * @param buf  The buffer containing the date
+	 * @param offset  Index of the first byte of the date
+	 * @param length  Number of bytes in the date
+	 * @return The parsed date
+	 * @throws Iso8601DateParseException
+	 */
+	public Iso8601Date parse(byte[] buf, int offset, int length) 
+			throws Iso8601DateParseException {
+		return parse(new AsciiCharSequence(buf, offset, length), 0, length);
+	}
+	
+	/**
+	 * Parses the date in the ASCII bytes between the buffer's position
+	 * 	and its limit.  Works with heap and direct buffers alike, and 
+	 * 	does not change the buffer's position.
+	 * 
+	 * @param buf  The buffer containing the date
+	 * @return The parsed date
+	 * @throws Iso8601DateParseException
+	 */
+	public Iso8601Date parse(ByteBuffer buf) throws Iso8601DateParseException {
+		return parse(buf, false);
+	}
+	
+	/**
+	 * Parses the date in the ASCII bytes between the buffer's position
+	 * 	and its limit.
+	 * 
+	 * @param buf  The buffer containing the date
+	 * @param advance  If true, and the parse succeeds, the buffer's 
+	 * 			position is moved to its limit.  Otherwise the position is
+	 * 			left alone.
+	 * @return The parsed date
+	 * @throws Iso8601DateParseException
+	 */
+	public Iso8601Date parse(ByteBuffer buf, boolean advance) 
+			throws Iso8601DateParseException {
+		Iso8601Date result = parse(buf, buf.position(), buf.remaining());
+		if (advance) {
+			buf.position(buf.limit());
+		}
+		return result;
+	}
+	
+	/**
+	 * Parses the date in the ASCII bytes buf[index, index+length), using
+	 * 	absolute reads only, so the buffer's position is not changed.
+	 * 
+	 * @param buf  The buffer containing the date
+	 * @param index  Index of the first byte of the date
+	 * @param length  Number of bytes in the date
+	 * @return The parsed date
+	 * @throws Iso8601DateParseException
+	 */
+	public Iso8601Date parse(ByteBuffer buf, int index, int length) 
+			throws Iso8601DateParseException {
+		return parse(new AsciiCharSequence(buf, index, length), 0, length);
+	}
+	
+	/*
+	 * Returns the index of the 'T' that separates date from time in 
+	 * 	s[start, end), or -1 if there is none.
+	 * 
+	 * Time of day may only follow a date that represents a day, and those
+	 * 	are always ydLen, ymdLen (== ydhLen == yWwdLen), or ymdhLen 
+	 * 	(== yWwdhLen) characters long after the optional sign.  So we look
+	 * 	at just those positions, and only fall back to searching for the
+	 * 	'T' when none of them has it (in which case parsing is going to
+	 * 	fail anyway).
+	 */
+	int findTimeDesignator(CharSequence s, int start, int end) {
+		int i = start;
+		if (i < end && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+			i++;
+		}
+		if (i+ymdLen < end && s.charAt(i+ymdLen) == 'T') {
+			return i+ymdLen;
+		}
+		if (i+ymdhLen < end && s.charAt(i+ymdhLen) == 'T') {
+			return i+ymdhLen;
+		}
+		if (i+ydLen < end && s.charAt(i+ydLen) == 'T') {
+			return i+ydLen;
+		}
+		for (int j=start; j<end; j++) {
+			if (s.charAt(j) == 'T') {
+				return j;
+			}
+		}
+		return -1;
+	}
+	
+	/*
+	 * Single pass over s[start, end).  The year is read first; the character
+	 * 	immediately after it ('W', '-', or a digit) together with the length
+	 * 	then determines which of the formats listed above we have, so each
+	 * 	character is looked at exactly once.
+	 */
+	long scan(CharSequence s, int start, int end) {
+		int i = start;
+		boolean isYearNegative = false;
+		if (i < end) {
+			char c = s.charAt(i);
+			if (c == '+') {
+				i++;
+			} else if (c == '-') {
+				i++;
+				isYearNegative = true;
+			}
+		}
+		int len = end - i;
+		
+		if (len == cLen) {
+			int century = digits(s, i, end);
+			if (century < 0) {
+				return error(ERR_ILLEGAL_FORMAT, ~century);
+			}
+			return pack(DateConfiguration.CENTURY, 
+					(isYearNegative) ? -century : century, 0, 0, false);
+		}
+		if (len < yLen) {
+			return error(ERR_ILLEGAL_FORMAT, end);
+		}
+		
+		int year = digits(s, i, i+yLen);
+		if (year < 0) {
+			return error(ERR_ILLEGAL_FORMAT, ~year);
+		}
+		if (isYearNegative) {
+			year = -year;
+		}
+		if (len == yLen) {
+			return pack(DateConfiguration.YEAR, year, 0, 0, false);
+		}
+		
+		int p = i + yLen;
+		char c = s.charAt(p);
+		if (c == 'W') {
+			return scanWeek(s, p+1, end, len, year);
+		} else if (c == '-') {
+			if (p+1 < end && s.charAt(p+1) == 'W') {
+				return scanWeekWithHyphen(s, p+2, end, len, year);
+			}
+			return scanHyphenated(s, p+1, end, len, year);
+		} else {
+			return scanBasic(s, p, end, len, year);
+		}
+	}
+
+	/*
+	 * CCDYWww or CCDYWwwd.  Position p is just past the 'W'.
+	 */
+	private long scanWeek(CharSequence s, int p, int end, int len, int year) {
+		if (len != yWwLen && len != yWwdLen) {
+			return error(ERR_WEEK_FORMAT, p);
+		}
+		int week = digits(s, p, p+2);
+		if (week < 0) {
+			return error(ERR_WEEK_FORMAT, ~week);
+		}
+		if (len == yWwLen) {
+			return pack(DateConfiguration.YEAR_WEEK, year, week, 0, false);
+		}
+		int day = digits(s, p+2, end);
+		if (day < 0) {
+			return error(ERR_WEEK_FORMAT, ~day);
+		}
+		return pack(DateConfiguration.YEAR_WEEK_DAY, year, week, day, false);
+	}
+	
+	/*
+	 * CCDY-Www or CCDY-Www-d.  Position p is just past the 'W'.
+	 */
+	private long scanWeekWithHyphen(CharSequence s, int p, int end, int len,
+			int year) {
+		if (len != yWwhLen && len != yWwdhLen) {
+			return error(ERR_WEEK_FORMAT, p);
+		}
+		int week = digits(s, p, p+2);
+		if (week < 0) {
+			return error(ERR_WEEK_FORMAT, ~week);
+		}
+		if (len == yWwhLen) {
+			return pack(DateConfiguration.YEAR_WEEK, year, week, 0, true);
+		}
+		if (s.charAt(p+2) != '-') {
+			return error(ERR_WEEK_FORMAT, p+2);
+		}
+		int day = digits(s, p+3, end);
+		if (day < 0) {
+			return error(ERR_WEEK_FORMAT, ~day);
+		}
+		return pack(DateConfiguration.YEAR_WEEK_DAY, year, week, day, true);
+	}
+	
+	/*
+	 * If we got here, then we have one of three formats:
+	 * 	YYYY-MM
+	 * 	YYYY-MM-DD
+	 *  YYYY-DDD
+	 *  
+	 *  Position p is just past the first hyphen.
+	 */
+	private long scanHyphenated(CharSequence s, int p, int end, int len, 
+			int year) {
+		if (len == ymhLen) {
+			int month = digits(s, p, end);
+			if (month < 0) {
+				return error(ERR_HYPHENATED_FORMAT, ~month);
+			}
+			return pack(DateConfiguration.YEAR_MONTH, year, month, 0, true);
+		} else if (len == ymdhLen) {
+			int month = digits(s, p, p+2);
+			if (month < 0) {
+				return error(ERR_HYPHENATED_FORMAT, ~month);
+			}
+			if (s.charAt(p+2) != '-') {
+				return error(ERR_HYPHENATED_FORMAT, p+2);
+			}
+			int day = digits(s, p+3, end);
+			if (day < 0) {
+				return error(ERR_HYPHENATED_FORMAT, ~day);
+			}
+			return pack(DateConfiguration.YEAR_MONTH_DAY, year, month, day, 
+					true);
+		} else if (len == ydhLen) {
+			int day = digits(s, p, end);
+			if (day < 0) {
+				return error(ERR_HYPHENATED_FORMAT, ~day);
+			}
+			return pack(DateConfiguration.YEAR_DAY_OF_YEAR, year, day, 0, 
+					true);
+		}
+		return error(ERR_HYPHENATED_FORMAT, p);
+	}
+	
+	/*
+	 * CCDYMM, CCDYddd, or CCDYMMDD.  Position p is just past the year.
+	 */
+	private long scanBasic(CharSequence s, int p, int end, int len, 
+			int year) {
+		if (len == ymLen) {
+			int month = digits(s, p, end);
+			if (month < 0) {
+				return error(ERR_ILLEGAL_FORMAT, ~month);
+			}
+			return pack(DateConfiguration.YEAR_MONTH, year, month, 0, false);
+		} else if (len == ydLen) {
+			int day = digits(s, p, end);
+			if (day < 0) {
+				return error(ERR_ILLEGAL_FORMAT, ~day);
+			}
+			return pack(DateConfiguration.YEAR_DAY_OF_YEAR, year, day, 0, 
+					false);
+		} else if (len == ymdLen) {
+			int month = digits(s, p, p+2);
+			if (month < 0) {
+				return error(ERR_ILLEGAL_FORMAT, ~month);
+			}
+			int day = digits(s, p+2, end);
+			if (day < 0) {
+				return error(ERR_ILLEGAL_FORMAT, ~day);
+			}
+			return pack(DateConfiguration.YEAR_MONTH_DAY, year, month, day, 
+					false);
+		}
+		return error(ERR_ILLEGAL_FORMAT, p);
+	}
+	
+	static void checkRange(int length, int start, int end) {
+		if (start < 0 || end < start || end > length) {
+			throw new IndexOutOfBoundsException("start=" + start + 
+					", end=" + end + ", length=" + length);
+		}
+	}
+	
+	/*
+	 * Reads the unsigned decimal number in s[from, to).  If a non-digit is
+	 * 	found, returns the bitwise complement of its index (which is always
+	 * 	negative) instead.
+	 */
+	static int digits(CharSequence s, int from, int to) {
+		int value = 0;
+		for (int i=from; i<to; i++) {
+			int d = s.charAt(i) - '0';
+			if (d < 0 || d > 9) {
+				return ~i;
+			}
+			value = value*10 + d;
+		}
+		return value;
+	}
+	
+	static long pack(DateConfiguration config, int year, int field2, 
+			int field3, boolean extended) {
+		return ((long)year << YEAR_SHIFT) |
+				((extended) ? (1L << EXTENDED_SHIFT) : 0L) |
+				((long)config.ordinal() << CONFIG_SHIFT) |
+				((long)field2 << FIELD2_SHIFT) |
+				field3;
+	}
+	
+	static long error(int code, int index) {
+		return ((long)index << YEAR_SHIFT) | 
+				((long)CONFIG_ERROR << CONFIG_SHIFT) |
+				((long)code << FIELD2_SHIFT);
+	}
+	
+	static int getConfigurationCode(long packed) {
+		return (int)(packed >>> CONFIG_SHIFT) & CONFIG_MASK;
+	}
+	
+	static int getYear(long packed) {
+		return (int)(packed >> YEAR_SHIFT);
+	}
+	
+	static int getField2(long packed) {
+		return (int)(packed >>> FIELD2_SHIFT) & FIELD2_MASK;
+	}
+	
+	static int getField3(long packed) {
+		return (int)packed & FIELD3_MASK;
+	}
+	
+	static boolean isExtended(long packed) {
+		return ((packed >>> EXTENDED_SHIFT) & 1L) == 1L;
+	}
+	
+	static Iso8601Date toDate(long packed) {
+		DateConfiguration config = CONFIGURATIONS[getConfigurationCode(packed)];
+		int year = getYear(packed);
+		switch (config) {
+			case CENTURY:
+			case YEAR:
+				return new Iso8601Date(config, year);
+			case YEAR_MONTH:
+			case YEAR_WEEK:
+			case YEAR_DAY_OF_YEAR:
+				return new Iso8601Date(config, year, getField2(packed));
+			default:
+				return new Iso8601Date(config, year, getField2(packed), 
+						getField3(packed));
+		}
+	}
+	
+	static int getErrorIndex(long packed) {
+		return getYear(packed);
+	}
+	
+	/*
+	 * True if toDate(packed) will not throw.
+	 */
+	static boolean isValid(long packed) {
+		if (isDay(packed)) {
+			return toEpochDay(packed) != INVALID_DAY;
+		}
+		int config = getConfigurationCode(packed);
+		int field2 = getField2(packed);
+		if (config == DateConfiguration.YEAR_MONTH.ordinal()) {
+			return field2 >= 1 && field2 <= 12;
+		} else if (config == DateConfiguration.YEAR_WEEK.ordinal()) {
+			return field2 >= 1 && field2 <= 53 && 
+					(field2 < 53 || Iso8601Date.is53WeekYear(getYear(packed)));
+		}
+		return true;
+	}
+	
+	static boolean isDay(long packed) {
+		int config = getConfigurationCode(packed);
+		return config == DateConfiguration.YEAR_MONTH_DAY.ordinal() ||
+				config == DateConfiguration.YEAR_WEEK_DAY.ordinal() ||
+				config == DateConfiguration.YEAR_DAY_OF_YEAR.ordinal();
+	}
+
+	/*
+	 * Returned by toEpochDay() for fields the Iso8601Date constructors 
+	 * 	would reject.  No day of an int year is this far from the epoch.
+	 */
+	static final long INVALID_DAY = Long.MIN_VALUE;
+	
+	/*
+	 * The epoch day (see EpochArithmetic) of a packed day, checked the same
+	 * 	way the Iso8601Date constructors check it, but without creating
+	 * 	one (toDate() will say what is wrong).  The caller must first make 
+	 * 	sure that isDay(packed).
+	 */
+	static long toEpochDay(long packed) {
+		int year = getYear(packed);
+		int field2 = getField2(packed);
+		int field3 = getField3(packed);
+		int config = getConfigurationCode(packed);
+		if (config == DateConfiguration.YEAR_MONTH_DAY.ordinal()) {
+			if (field2 < 1 || field2 > 12 || field3 < 1 || field3 > 31 ||
+					(field3 == 31 && !Iso8601Date.is31DayMonth(field2))) {
+				return INVALID_DAY;
+			}
+			return EpochArithmetic.epochDay(year, field2, field3);
+		} else if (config == DateConfiguration.YEAR_WEEK_DAY.ordinal()) {
+			if (field2 < 1 || field2 > 53 || field3 < 1 || field3 > 7 ||
+					(field2 == 53 && !Iso8601Date.is53WeekYear(year))) {
+				return INVALID_DAY;
+			}
+			return EpochArithmetic.epochDayOfWeekDay(year, field2, field3);
+		} else {
+			if (field2 < 1 || field2 > 366 || 
+					(field2 == 366 && !Iso8601Date.isLeapYear(year))) {
+				return INVALID_DAY;
+			}
+			return EpochArithmetic.epochDayOfYearDay(year, field2);
+		}
+	}
+	
+	static Iso8601DateParseException createException(CharSequence s,
+			int start, int end, long packed) {
+		String txt = s.subSequence(start, end).toString();
+		switch (getField2(packed)) {
+			case ERR_WEEK_FORMAT:
+				return new Iso8601DateParseException("Illegal ISO 8601 week " +
+						"format (" + txt + ")",
+						Iso8601ParseResult.STACK_TRACES);
+			case ERR_HYPHENATED_FORMAT:
+				return new Iso8601DateParseException("Unrecognized ISO 8601 " +
+						"hyphenated format (" + txt + ")",
+						Iso8601ParseResult.STACK_TRACES);
+			default:
+				return new Iso8601DateParseException("Illegal format (" + 
+						txt + ")",
+						Iso8601ParseResult.STACK_TRACES);
+		}
+	}
+}
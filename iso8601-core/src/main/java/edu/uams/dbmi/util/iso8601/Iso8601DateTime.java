@@ -0,0 +1,368 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+public class Iso8601DateTime implements Comparable<Iso8601DateTime> {
+	Iso8601Date date;
+	Iso8601Time time;
+	
+	/*
+	 * Built the first time getCalendar() needs it, so that constructing a
+	 * 	date/time does not build a calendar nobody asks for (except when 
+	 * 	it was built from one).  Two threads may both build it; they build
+	 * 	equal calendars, and volatile makes sure neither sees one half 
+	 * 	built.
+	 */
+	private volatile GregorianCalendar c;
+	
+	/**
+	 * Convenience constructor that builds an ISO8601 date/time object
+	 * 	from current system date/time (by calling GregorianCalendar.
+	 * 	getInstance()). So the Iso8601Time
+	 * 	member variable will be an instance of Iso8601UnitTime where
+	 * 	getPrecision() returns TimePrecision.MILLISECOND.
+	 */
+	public Iso8601DateTime() {
+		buildFromCalendar((GregorianCalendar)GregorianCalendar.getInstance());
+	}
+	
+	public Iso8601DateTime(GregorianCalendar gc) {
+		buildFromCalendar(gc);
+	}
+
+	private void buildFromCalendar(GregorianCalendar c) {
+		date = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 
+				c.get(Calendar.YEAR), c.get(Calendar.MONTH)+1, 
+				c.get(Calendar.DAY_OF_MONTH));
+		IsoUnitTimeBuilder tb = new IsoUnitTimeBuilder(c.get(Calendar.HOUR_OF_DAY));
+		tb.setMinute(c.get(Calendar.MINUTE));
+		tb.setSecond(c.get(Calendar.SECOND));
+		tb.setPrecision(TimePrecision.MILLISECOND);
+		tb.setSubsecond(c.get(Calendar.MILLISECOND));
+		int[] tzOff = getTzHourMinOffsetForCalendar(c);
+		tb.setTimeZoneOffsetHour(tzOff[0]);
+		tb.setTimeZoneOffsetMinute(tzOff[1]);
+		if (tzOff[0] == 0 && tzOff[1] == 0) {
+			tb.isUtc = true;
+		}
+		time = new Iso8601UnitTime(tb);
+		this.c = (GregorianCalendar)c.clone();
+	}
+	
+	public Iso8601DateTime(Iso8601Date date, Iso8601Time time) {
+		if (date == null || time == null) {
+			throw new NullPointerException("Iso8601DateTime(): neither " +
+					"date nor time may be null.");
+		}
+		
+		if (!date.isDay()) {
+			throw new IllegalArgumentException("The Iso8601Date passed to " +
+					"this constructor does not represent a day, and thus " +
+					"time of day is meaningless.");
+		}
+		
+		if (areDateAndTimeCompatibile(date, time)) {
+			if (time.getHour() == 24) {
+				/*
+				 * We're just going to kludge anything we get as hr == 24 to
+				 * 	00:00 of the next day.  The Iso8601Time class ensures 
+				 * 	that if hour is 24, everything else is zero.  Objects 
+				 * 	passed in are never modified.
+				 */
+				long next = EpochArithmetic.yearMonthDay(date.epochDay + 1);
+				date = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 
+						(int)EpochArithmetic.yearOf(next), 
+						EpochArithmetic.monthOf(next),
+						EpochArithmetic.dayOfMonthOf(next));
+				time = time.withHour(0);
+			}
+			this. date = date;
+			this. time = time;
+		} else {
+			throw new IllegalArgumentException("Date and time are not compatible.");
+		}
+	}
+	
+	private GregorianCalendar buildCalendar() {
+		/*
+		 * An ISO 8601 time has an offset, not a zone, so the calendar gets
+		 * 	a fixed-offset zone (UTC if the offset is zero or there is 
+		 * 	none).
+		 */
+		TimeZone tz = FixedOffsetTimeZones.forOffsetMinutes(
+				time.offsetMinutes());
+		GregorianCalendar c = new GregorianCalendar(tz);
+		c.set(date.getYear(), date.getMonth()-1, date.getDayOfMonth(), 0, 0, 0);
+		c.set(Calendar.MILLISECOND, 0);
+		c.set(Calendar.HOUR_OF_DAY, time.getHour());
+		if (time instanceof Iso8601UnitTime) {
+			Iso8601UnitTime u = (Iso8601UnitTime)time;
+			/*
+			 * If time unit is not an hour, then it is less than an hour, 
+			 *  so at the largest, the unit is minute, so minute must be
+			 *  present.
+			 */
+			if (u.precision != TimePrecision.HOUR) {
+				c.set(Calendar.MINUTE, u.getMinute());
+				/*
+				 * If the unit is not an hour or a minute, then the 
+				 *  largest it can be is second
+				 */
+				if (u.precision != TimePrecision.MINUTE) {
+					//TODO One question is what happens with leap seconds?
+					//  I'm assuming java.util.Gregorian calendar handles 
+					//	them with ease, but who knows?
+					c.set(Calendar.SECOND, u.getSecond());
+					/*
+					 * If it's not hour, minute, or second, then it's
+					 * 	smaller than second. Convert to nearest 
+					 *  millisecond.
+					 */
+					if (u.precision > TimePrecision.MILLISECOND) {
+						c.set(Calendar.MILLISECOND, (int)(u.subSecond / 
+								Iso8601TimeParser.LONG_POW10[u.precision - 
+								TimePrecision.MILLISECOND]));
+					} else if (u.precision != TimePrecision.SECOND) {
+						c.set(Calendar.MILLISECOND, (int)(u.subSecond * 
+								Iso8601TimeParser.LONG_POW10[
+								TimePrecision.MILLISECOND - u.precision]));
+					}
+				}
+			}
+		}
+		return c;
+	}
+
+	/*
+	 * Main goal of this function is to ensure that if the time has
+	 * 	second == 60, then the date is one on which there has been a 
+	 * 	leap second, in reality.
+	 * 
+	 * The Iso8601UnitTime class will make sure that for second==60,
+	 * 	the hour == 23 and minute == 59.  So no need to check that here.
+	 */
+	private boolean areDateAndTimeCompatibile(Iso8601Date date,
+			Iso8601Time time) {
+		/*
+		 * We default to true, and only switch to false if the second is 60
+		 * 	and there was no leap second on the date.
+		 */
+		boolean ok = true;
+		/*
+		 * Only Iso8601UnitTime objects can have seconds, and therefore
+		 * 	leap seconds.
+		 */
+		if (time instanceof Iso8601UnitTime) {
+			Iso8601UnitTime tu = (Iso8601UnitTime)time;
+			/*
+			 * It's only a leap second if second == 60
+			 */
+			if (tu.se == 60) {
+				/*
+				 * If date had a leap second, then we'll stay at true, 
+				 * 	otherwise if date had no leap second, we have an 
+				 *  illegitimate date/time combination, so switch to 
+				 *  false, in which cases caller of method should fail.
+				 */
+				ok = LeapSecondTable.hasLeapSecond(date);
+			}
+		}
+		return ok;
+	}
+
+	public Iso8601Date getDate() {
+		return date;
+	}
+	
+	public Iso8601Time getTime() {
+		return time;
+	}
+	
+	/**
+	 * Get the calendar object that corresponds to this ISO 8601 date/time 
+	 * 	object.  Note that calling getDate().getCalendar() will return the
+	 * 	same instance.
+	 * 
+	 * The calendar's time zone has the fixed offset of the time, with no
+	 * 	daylight saving time, and an ID such as "GMT-05:00" ("UTC" when 
+	 * 	the offset is zero or the time has none).
+	 * 
+	 * The calendar is cloned on every call.  To get the instant, 
+	 * 	toEpochMillis() or toEpochSecond() and getNano() are much cheaper.
+	 * 
+	 * @return The Gregorian calendar object that corresponds to this 
+	 * 				ISO8601 date/time
+	 */
+	public Calendar getCalendar() {
+		GregorianCalendar gc = c;
+		if (gc == null) {
+			gc = buildCalendar();
+			c = gc;
+		}
+		//we don't want the calling function/method to change our 
+		// Calendar out from under us!!
+		return (Calendar) gc.clone();
+	}
+	
+	protected int[] getTzHourMinOffsetForCalendar(GregorianCalendar c) {
+		int tzOffsetMillis = c.get(Calendar.ZONE_OFFSET);
+		int dstOffsetMillis = c.get(Calendar.DST_OFFSET);
+		
+		int offsetMillis = tzOffsetMillis + dstOffsetMillis;
+		
+		int[] result = new int[2];
+		result[0] = offsetMillis / 3600000;
+		
+		/*
+		 * The minute offset is never negative (e.g., -03:30 is -3 and 30).
+		 */
+		int remainder = offsetMillis % 3600000;
+		if (remainder != 0) {
+			result[1] = Math.abs(remainder / 60000);
+		}
+		
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		boolean eq = false;
+		if (o instanceof Iso8601DateTime) {
+			Iso8601DateTime dt = (Iso8601DateTime)o;
+			eq = (time.equals(dt.time) && date.equals(dt.date));
+		}
+		return eq;
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31*date.hashCode() + time.hashCode();
+	}
+	
+	/**
+	 * The instant the date/time starts at, computed from its fields 
+	 * 	without a Calendar.  Like the rest of the epoch accessors, it 
+	 * 	uses the proleptic Gregorian calendar, so it agrees with 
+	 * 	getCalendar().getTimeInMillis() from October 15, 1582 on, except 
+	 * 	that the calendar drops fractional hours and minutes.  A leap 
+	 * 	second (23:59:60) is the same instant as the midnight after it, 
+	 * 	and a time with no time zone is taken to be UTC.
+	 * 
+	 * @return Seconds from 1970-01-01T00:00:00Z
+	 */
+	public long toEpochSecond() {
+		return date.epochDay*EpochArithmetic.SECONDS_PER_DAY + 
+				time.nanoOfDay()/EpochArithmetic.NANOS_PER_SECOND - 
+				time.offsetMinutes()*60L;
+	}
+	
+	/**
+	 * 
+	 * @return Nanoseconds past toEpochSecond()
+	 */
+	public int getNano() {
+		return (int)(time.nanoOfDay()%EpochArithmetic.NANOS_PER_SECOND);
+	}
+	
+	/**
+	 * 
+	 * @return Milliseconds from 1970-01-01T00:00:00Z (see toEpochSecond()),
+	 * 			with any finer subsecond truncated, as a Calendar does
+	 * @throws IllegalArgumentException if the instant does not fit in a 
+	 * 			long
+	 */
+	public long toEpochMillis() {
+		return EpochArithmetic.scale(toEpochSecond(), 
+				EpochArithmetic.MILLIS_PER_SECOND, getNano()/1000000);
+	}
+	
+	/**
+	 * 
+	 * @return The day of the date (in its own time zone, not UTC), 
+	 * 			counted from 1970-01-01 
+	 */
+	public long toEpochDay() {
+		return date.epochDay;
+	}
+	
+	/**
+	 * Orders date/times by the instant they start at, and date/times that
+	 * 	start at the same instant from the coarsest precision to the 
+	 * 	finest (so 2011-11-11T11 comes before 2011-11-11T11:00).  
+	 * 	Date/times that are still tied but not equal (e.g., 
+	 * 	2011-11-11T12:00Z and 2011-11-11T07:00-05:00, or 23:59:60 and the
+	 * 	midnight after it) are ordered by offset, then by local date, then
+	 * 	field by field, so the order is consistent with equals().
+	 */
+	public int compareTo(Iso8601DateTime dt) {
+		return compare(this, dt, true);
+	}
+	
+	/**
+	 * 
+	 * @param coarserFirst Whether, among date/times that start at the 
+	 * 			same instant, coarser precisions come first (as in 
+	 * 			compareTo()) or last
+	 * @return A comparator that orders date/times by instant, then by 
+	 * 			precision.  The same instance is returned on every call.
+	 */
+	public static Comparator<Iso8601DateTime> instantOrder(
+			boolean coarserFirst) {
+		return (coarserFirst) ? COARSER_FIRST : FINER_FIRST;
+	}
+	
+	private static final Comparator<Iso8601DateTime> COARSER_FIRST = 
+			new Comparator<Iso8601DateTime>() {
+		public int compare(Iso8601DateTime dt1, Iso8601DateTime dt2) {
+			return Iso8601DateTime.compare(dt1, dt2, true);
+		}
+	};
+	
+	private static final Comparator<Iso8601DateTime> FINER_FIRST = 
+			new Comparator<Iso8601DateTime>() {
+		public int compare(Iso8601DateTime dt1, Iso8601DateTime dt2) {
+			return Iso8601DateTime.compare(dt1, dt2, false);
+		}
+	};
+	
+	static int compare(Iso8601DateTime dt1, Iso8601DateTime dt2, 
+			boolean coarserFirst) {
+		int c = Long.compare(dt1.toEpochSecond(), dt2.toEpochSecond());
+		if (c == 0) {
+			c = Integer.compare(dt1.getNano(), dt2.getNano());
+		}
+		if (c == 0) {
+			c = Iso8601Time.comparePrecision(dt1.time, dt2.time, coarserFirst);
+		}
+		if (c == 0) {
+			c = Integer.compare(dt1.time.offsetMinutes(), 
+					dt2.time.offsetMinutes());
+		}
+		if (c == 0) {
+			c = Long.compare(dt1.date.epochDay, dt2.date.epochDay);
+		}
+		if (c == 0) {
+			c = Iso8601Time.compareFields(dt1.time, dt2.time);
+		}
+		return c;
+	}
+}
@@ -0,0 +1,269 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Parses whole columns of date/times (e.g., from CSV or Parquet files) 
+ * 	into primitive arrays: the instant of each, as milliseconds or 
+ * 	nanoseconds since 1970-01-01T00:00:00Z, along with its precision (a
+ * 	TimePrecision code) and its offset from UTC in minutes.  See 
+ * 	Iso8601DateTimeParser.parseToEpochMillis() for how each value is 
+ * 	interpreted.
+ * 
+ * Rows that are not legal date/times (including nulls) do not throw.  They
+ * 	are flagged in a BitSet instead, and their entries in the output 
+ * 	arrays are set to zero.  Nothing is allocated per row, so this is the
+ * 	fastest way through the library for columnar data.
+ * 
+ * Like the other parsers, a column parser holds no per-parse state and
+ * 	may be shared between threads, as long as they write to different 
+ * 	arrays (or different ranges of the same arrays).
+ * 
+ * @author williamhogan
+ *
+ */
+public class Iso8601DateTimeColumnParser {
+	
+	final Iso8601DateTimeParser p;
+	
+	public Iso8601DateTimeColumnParser() {
+		p = new Iso8601DateTimeParser();
+	}
+	
+	/**
+	 * Parses every row of column into milliseconds since the epoch.
+	 * 
+	 * @param column  The date/times to parse
+	 * @param epochMillis  Receives the instant of row i at index i
+	 * @param precision  Receives the TimePrecision code of row i at index i, 
+	 * 			or null if not wanted
+	 * @param offsetMinutes  Receives the offset from UTC of row i at index i,
+	 * 			or null if not wanted
+	 * @param errors  Bit i is set if row i could not be parsed, and cleared
+	 * 			otherwise
+	 * @return The number of rows that could not be parsed
+	 */
+	public int parseToEpochMillis(CharSequence[] column, long[] epochMillis,
+			byte[] precision, short[] offsetMinutes, BitSet errors) {
+		return parseToEpochMillis(column, 0, column.length, epochMillis, 
+				precision, offsetMinutes, errors);
+	}
+	
+	/**
+	 * Parses rows from through to-1 of column into milliseconds since the 
+	 * 	epoch.  Row i goes to index i of each output array, and only those
+	 * 	indexes (and bits) are touched.
+	 * 
+	 * @param column  The date/times to parse
+	 * @param from  The first row to parse
+	 * @param to  One past the last row to parse
+	 * @param epochMillis  Receives the instant of row i at index i
+	 * @param precision  Receives the TimePrecision code of row i at index i, 
+	 * 			or null if not wanted
+	 * @param offsetMinutes  Receives the offset from UTC of row i at index i,
+	 * 			or null if not wanted
+	 * @param errors  Bit i is set if row i could not be parsed, and cleared
+	 * 			otherwise
+	 * @return The number of rows that could not be parsed
+	 */
+	public int parseToEpochMillis(CharSequence[] column, int from, int to,
+			long[] epochMillis, byte[] precision, short[] offsetMinutes, 
+			BitSet errors) {
+		return parse(column, from, to, EpochArithmetic.MILLIS_PER_SECOND, 
+				epochMillis, precision, offsetMinutes, errors);
+	}
+	
+	/**
+	 * Parses every element of column into milliseconds since the epoch.
+	 * 
+	 * @param column  The date/times to parse
+	 * @param epochMillis  Receives the instant of row i at index i
+	 * @param precision  Receives the TimePrecision code of row i at index i, 
+	 * 			or null if not wanted
+	 * @param offsetMinutes  Receives the offset from UTC of row i at index i,
+	 * 			or null if not wanted
+	 * @param errors  Bit i is set if row i could not be parsed, and cleared
+	 * 			otherwise
+	 * @return The number of rows that could not be parsed
+	 */
+	public int parseToEpochMillis(List<? extends CharSequence> column, 
+			long[] epochMillis, byte[] precision, short[] offsetMinutes, 
+			BitSet errors) {
+		return parse(column, EpochArithmetic.MILLIS_PER_SECOND, epochMillis, 
+				precision, offsetMinutes, errors);
+	}
+	
+	/**
+	 * Parses every row of column into nanoseconds since the epoch.  Rows 
+	 * 	outside the years 1677 through 2262 cannot be represented, and are
+	 * 	flagged as errors.
+	 * 
+	 * @param column  The date/times to parse
+	 * @param epochNanos  Receives the instant of row i at index i
+	 * @param precision  Receives the TimePrecision code of row i at index i, 
+	 * 			or null if not wanted
+	 * @param offsetMinutes  Receives the offset from UTC of row i at index i,
+	 * 			or null if not wanted
+	 * @param errors  Bit i is set if row i could not be parsed, and cleared
+	 * 			otherwise
+	 * @return The number of rows that could not be parsed
+	 */
+	public int parseToEpochNanos(CharSequence[] column, long[] epochNanos,
+			byte[] precision, short[] offsetMinutes, BitSet errors) {
+		return parseToEpochNanos(column, 0, column.length, epochNanos, 
+				precision, offsetMinutes, errors);
+	}
+	
+	/**
+	 * Parses rows from through to-1 of column into nanoseconds since the 
+	 * 	epoch.  Row i goes to index i of each output array, and only those
+	 * 	indexes (and bits) are touched.
+	 * 
+	 * @param column  The date/times to parse
+	 * @param from  The first row to parse
+	 * @param to  One past the last row to parse
+	 * @param epochNanos  Receives the instant of row i at index i
+	 * @param precision  Receives the TimePrecision code of row i at index i, 
+	 * 			or null if not wanted
+	 * @param offsetMinutes  Receives the offset from UTC of row i at index i,
+	 * 			or null if not wanted
+	 * @param errors  Bit i is set if row i could not be parsed, and cleared
+	 * 			otherwise
+	 * @return The number of rows that could not be parsed
+	 */
+	public int parseToEpochNanos(CharSequence[] column, int from, int to,
+			long[] epochNanos, byte[] precision, short[] offsetMinutes, 
+			BitSet errors) {
+		return parse(column, from, to, EpochArithmetic.NANOS_PER_SECOND, 
+				epochNanos, precision, offsetMinutes, errors);
+	}
+	
+	/**
+	 * Parses every element of column into nanoseconds since the epoch.
+	 * 
+	 * @param column  The date/times to parse
+	 * @param epochNanos  Receives the instant of row i at index i
+	 * @param precision  Receives the TimePrecision code of row i at index i, 
+	 * 			or null if not wanted
+	 * @param offsetMinutes  Receives the offset from UTC of row i at index i,
+	 * 			or null if not wanted
+	 * @param errors  Bit i is set if row i could not be parsed, and cleared
+	 * 			otherwise
+	 * @return The number of rows that could not be parsed
+	 */
+	public int parseToEpochNanos(List<? extends CharSequence> column, 
+			long[] epochNanos, byte[] precision, short[] offsetMinutes, 
+			BitSet errors) {
+		return parse(column, EpochArithmetic.NANOS_PER_SECOND, epochNanos, 
+				precision, offsetMinutes, errors);
+	}
+	
+	int parse(CharSequence[] column, int from, int to, long scale,
+			long[] epochs, byte[] precision, short[] offsetMinutes, 
+			BitSet errors) {
+		Iso8601DateParser.checkRange(column.length, from, to);
+		checkOutputs(to, epochs, precision, offsetMinutes);
+		errors.clear(from, to);
+		return parseRange(column, from, to, scale, epochs, precision, 
+				offsetMinutes, errors, 0);
+	}
+	
+	/*
+	 * The work of parse(), without the checks.  Errors are recorded at
+	 * 	bit (i - errorBase) for row i, so that a piece of a larger column 
+	 * 	can keep a small BitSet of its own.
+	 */
+	int parseRange(CharSequence[] column, int from, int to, long scale,
+			long[] epochs, byte[] precision, short[] offsetMinutes, 
+			BitSet errors, int errorBase) {
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		int failed = 0;
+		for (int i=from; i<to; i++) {
+			if (!parseRow(column[i], i, scale, epochs, precision, 
+					offsetMinutes, r)) {
+				errors.set(i - errorBase);
+				failed++;
+			}
+		}
+		return failed;
+	}
+	
+	int parse(List<? extends CharSequence> column, long scale, long[] epochs, 
+			byte[] precision, short[] offsetMinutes, BitSet errors) {
+		checkOutputs(column.size(), epochs, precision, offsetMinutes);
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		errors.clear(0, column.size());
+		int failed = 0;
+		int i = 0;
+		/*
+		 * Iterate rather than call get(i), which is linear for LinkedList.
+		 */
+		for (CharSequence s : column) {
+			if (!parseRow(s, i, scale, epochs, precision, offsetMinutes, r)) {
+				errors.set(i);
+				failed++;
+			}
+			i++;
+		}
+		return failed;
+	}
+	
+	/*
+	 * Parses one row into index i of the outputs, or zeros them and returns
+	 * 	false if it cannot.
+	 */
+	private boolean parseRow(CharSequence s, int i, long scale, long[] epochs,
+			byte[] precision, short[] offsetMinutes, Iso8601ParseResult r) {
+		boolean ok = (s != null && 
+				p.scan(s, 0, s.length(), r) == Iso8601ParseResult.NO_ERROR);
+		long fraction = 0L;
+		if (ok) {
+			Iso8601DateTimeParser.setInstant(r);
+			fraction = r.nano/(EpochArithmetic.NANOS_PER_SECOND/scale);
+			ok = EpochArithmetic.inRange(r.epochSecond, scale, fraction);
+		}
+		if (ok) {
+			epochs[i] = r.epochSecond*scale + fraction;
+			if (precision != null) {
+				precision[i] = r.precision;
+			}
+			if (offsetMinutes != null) {
+				offsetMinutes[i] = (short)r.offsetMinutes;
+			}
+		} else {
+			epochs[i] = 0L;
+			if (precision != null) {
+				precision[i] = 0;
+			}
+			if (offsetMinutes != null) {
+				offsetMinutes[i] = 0;
+			}
+		}
+		return ok;
+	}
+	
+	static void checkOutputs(int rows, long[] epochs, 
+			byte[] precision, short[] offsetMinutes) {
+		if (epochs.length < rows || 
+				(precision != null && precision.length < rows) ||
+				(offsetMinutes != null && offsetMinutes.length < rows)) {
+			throw new IndexOutOfBoundsException("Output arrays must have " +
+					"room for " + rows + " rows.");
+		}
+	}
+}
@@ -0,0 +1,133 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.io.IOException;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+public class Iso8601DateTimeFormatter {
+	
+	/*
+	 * The date and time formatters each keep their own copy of the 
+	 * 	options, so like them, this is immutable and can be shared between
+	 * 	threads.
+	 */
+	final Iso8601DateFormatter df;
+	final Iso8601TimeFormatter tf;
+	
+	public Iso8601DateTimeFormatter() {
+		Iso8601DateFormatter.FormatOptions dfo = 
+				new Iso8601DateFormatter.FormatOptions();
+		dfo.setExtended(true);
+		Iso8601TimeFormatter.FormatOptions tfo = 
+				new Iso8601TimeFormatter.FormatOptions();
+		tfo.setExtended(true);
+		
+		dfo.setConfiguration(DateConfiguration.YEAR_MONTH_DAY);
+		tfo.setPrecedeWithT(true);
+		tfo.setIncludeTzMinIfZero(true);
+		
+		df = new Iso8601DateFormatter(dfo);
+		tf = new Iso8601TimeFormatter(tfo);
+	}
+	
+	public Iso8601DateTimeFormatter(Iso8601DateFormatter.FormatOptions dfo,
+			Iso8601TimeFormatter.FormatOptions tfo) {
+		/*
+		 * Check the copies, not the caller's options, which could change in 
+		 * 	the meantime.
+		 */
+		df = new Iso8601DateFormatter(dfo);
+		tf = new Iso8601TimeFormatter(tfo);
+		if (!areConsistent(df.options, tf.options)) {
+			throw new IllegalArgumentException("Date and time format options" +
+					" are inconsistent.");
+		}
+	}
+	
+	protected boolean areConsistent(Iso8601DateFormatter.FormatOptions dfo,
+			Iso8601TimeFormatter.FormatOptions tfo) {
+		/*
+		 * If date is in extended format, then time must be also, per the 
+		 * 	ISO8601 standard.
+		 */
+		boolean ok = (dfo.isExtended() == tfo.isExtended());
+		/*
+		 * It is allowable to leave out the 'T' if both sender and receiver
+		 * 	agree beforehand.
+		 * 
+		 * TODO Should then relax this constraint, but make the user
+		 * 	explicitly do so, with all kinds of warnings.
+		 */
+		ok = ok && tfo.isPrecedeWithT();
+		return ok;
+	}
+	
+	public String format(Iso8601DateTime dt) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			write(dt, sb, 0);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Formats the date/time straight into an Appendable (e.g., a Writer or
+	 * 	a StringBuilder), without building a String first.
+	 * 
+	 * @return The number of characters written
+	 * @throws IOException if the Appendable does
+	 */
+	public int formatTo(Iso8601DateTime dt, Appendable out) 
+			throws IOException {
+		return write(dt, out, 0);
+	}
+	
+	/**
+	 * Formats the date/time into a char[], starting at offset.
+	 * 
+	 * @return The number of characters written
+	 * @throws ArrayIndexOutOfBoundsException if the text does not fit
+	 */
+	public int formatTo(Iso8601DateTime dt, char[] buf, int offset) {
+		try {
+			return write(dt, buf, offset) - offset;
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+	
+	/**
+	 * Formats the date/time into a byte[] as ASCII, starting at offset.
+	 * 
+	 * @return The number of bytes written
+	 * @throws ArrayIndexOutOfBoundsException if the text does not fit
+	 */
+	public int formatTo(Iso8601DateTime dt, byte[] buf, int offset) {
+		try {
+			return write(dt, buf, offset) - offset;
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+	
+	int write(Iso8601DateTime dt, Object sink, int pos) throws IOException {
+		pos = df.write(dt.getDate(), sink, pos);
+		return tf.write(dt.getTime(), sink, pos);
+	}
+}
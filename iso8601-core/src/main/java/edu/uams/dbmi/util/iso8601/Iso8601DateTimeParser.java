@@ -0,0 +1,504 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+public class Iso8601DateTimeParser {
+	
+	final Iso8601DateParser dp;
+	final Iso8601TimeParser tp;
+	
+	/*
+	 * Notes: 
+	 * 
+	 * 1.  If date is in extended form, then time must be as well
+	 * 2.  We eventually need to allow user to remove "T" as the standard
+	 * 		allows leaving it out if sender/receiver mutually agree 
+	 * 		beforehand.
+	 *  
+	 */
+	public Iso8601DateTimeParser() {
+		dp = new Iso8601DateParser();
+		tp = new Iso8601TimeParser();
+	}
+	
+	public Iso8601DateTime parse(String s) throws Iso8601DateParseException,
+			Iso8601TimeParseException {
+		return parse(s, 0, s.length());
+	}
+	
+	/**
+	 * Parses the date/time in buf[offset, offset+length) in place.
+	 * 
+	 * @param buf  The buffer containing the date/time
+	 * @param offset  Index of the first character of the date/time
+	 * @param length  Number of characters in the date/time
+	 * @return The parsed date/time
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601DateTime parse(char[] buf, int offset, int length) 
+			throws Iso8601DateParseException, Iso8601TimeParseException {
+		Iso8601DateParser.checkRange(buf.length, offset, offset+length);
+		return parse(CharBuffer.wrap(buf), offset, offset+length);
+	}
+	
+	/**
+	 * Parses the date/time in the ASCII bytes buf[offset, offset+length) 
+	 * 	directly, without decoding them into a String.
+	 * 
+	 * @param buf  The buffer containing the date/time
+	 * @param offset  Index of the first byte of the date/time
+	 * @param length  Number of bytes in the date/time
+	 * @return The parsed date/time
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601DateTime parse(byte[] buf, int offset, int length) 
+			throws Iso8601DateParseException,
+			Iso8601TimeParseException {
+		return parse(new AsciiCharSequence(buf, offset, length), 0, length);
+	}
+	
+	/**
+	 * Parses the date/time in the ASCII bytes between the buffer's position
+	 * 	and its limit.  Works with heap and direct buffers alike, and 
+	 * 	does not change the buffer's position.
+	 * 
+	 * @param buf  The buffer containing the date/time
+	 * @return The parsed date/time
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601DateTime parse(ByteBuffer buf) throws Iso8601DateParseException,
+			Iso8601TimeParseException {
+		return parse(buf, false);
+	}
+	
+	/**
+	 * Parses the date/time in the ASCII bytes between the buffer's position
+	 * 	and its limit.
+	 * 
+	 * @param buf  The buffer containing the date/time
+	 * @param advance  If true, and the parse succeeds, the buffer's 
+	 * 			position is moved to its limit.  Otherwise the position is
+	 * 			left alone.
+	 * @return The parsed date/time
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601DateTime parse(ByteBuffer buf, boolean advance) 
+			throws Iso8601DateParseException,
+			Iso8601TimeParseException {
+		Iso8601DateTime result = parse(buf, buf.position(), buf.remaining());
+		if (advance) {
+			buf.position(buf.limit());
+		}
+		return result;
+	}
+	
+	/**
+	 * Parses the date/time in the ASCII bytes buf[index, index+length), using
+	 * 	absolute reads only, so the buffer's position is not changed.
+	 * 
+	 * @param buf  The buffer containing the date/time
+	 * @param index  Index of the first byte of the date/time
+	 * @param length  Number of bytes in the date/time
+	 * @return The parsed date/time
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601DateTime parse(ByteBuffer buf, int index, int length) 
+			throws Iso8601DateParseException,
+			Iso8601TimeParseException {
+		return parse(new AsciiCharSequence(buf, index, length), 0, length);
+	}
+	
+	/**
+	 * Parses the date/time in s[start, end) in place, so that timestamps
+	 * 	embedded in larger records need not be copied out into their own
+	 * 	Strings first.
+	 * 
+	 * @param s  The characters containing the date/time
+	 * @param start  Index of the first character of the date/time
+	 * @param end  Index just past the last character of the date/time
+	 * @return The parsed date/time
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601DateTime parse(CharSequence s, int start, int end) 
+			throws Iso8601DateParseException, Iso8601TimeParseException {
+		return parse(s, start, end, new Iso8601ParseResult());
+	}
+	
+	/**
+	 * Parses the date/time in s[start, end) in place, and records in 
+	 * 	result whether it was in basic or extended format.
+	 * 
+	 * @param s  The characters containing the date/time
+	 * @param start  Index of the first character of the date/time
+	 * @param end  Index just past the last character of the date/time
+	 * @param result  Receives the parsed fields and format flags
+	 * @return The parsed date/time
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601DateTime parse(CharSequence s, int start, int end,
+			Iso8601ParseResult result) throws Iso8601DateParseException, 
+			Iso8601TimeParseException {
+		Iso8601DateParser.checkRange(s.length(), start, end);
+		int code = scan(s, start, end, result);
+		if (code != Iso8601ParseResult.NO_ERROR) {
+			throwScanError(code, s, start, end, result);
+		}
+		return new Iso8601DateTime(
+				Iso8601DateParser.toDate(result.packedDate), 
+				tp.toTime(result));
+	}
+	
+	/**
+	 * Parses the date/time in s and returns the instant it denotes as 
+	 * 	milliseconds since 1970-01-01T00:00:00Z.  See 
+	 * 	parseToEpochMillis(CharSequence, int, int, Iso8601ParseResult).
+	 * 
+	 * @param s  The date/time
+	 * @param result  Receives the precision and offset of the date/time
+	 * @return Milliseconds since the epoch
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public long parseToEpochMillis(String s, Iso8601ParseResult result) 
+			throws Iso8601DateParseException, Iso8601TimeParseException {
+		return parseToEpochMillis(s, 0, s.length(), result);
+	}
+	
+	/**
+	 * Parses the date/time in s[start, end) and returns the instant it 
+	 * 	denotes as milliseconds since 1970-01-01T00:00:00Z, computed 
+	 * 	directly from the parsed fields, without creating any objects.
+	 * 
+	 * The text is checked exactly as parse() checks it.  A time of 24:00 is 
+	 * 	the start of the following day, a time without a time zone is taken
+	 * 	to be UTC (as Iso8601Time does), and a fractional hour or minute is
+	 * 	converted to the instant it denotes.  Subseconds beyond the 
+	 * 	millisecond are truncated; result.getNano() has them.
+	 * 
+	 * Days are counted on the proleptic Gregorian calendar, so for dates
+	 * 	before October 15, 1582 the instant differs from the one 
+	 * 	GregorianCalendar (and thus Iso8601DateTime.getCalendar()) gives.
+	 * 
+	 * @param s  The characters containing the date/time
+	 * @param start  Index of the first character of the date/time
+	 * @param end  Index just past the last character of the date/time
+	 * @param result  Receives the precision (a TimePrecision code) and the
+	 * 			offset in minutes of the date/time, along with its fields and
+	 * 			format flags
+	 * @return Milliseconds since the epoch
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public long parseToEpochMillis(CharSequence s, int start, int end, 
+			Iso8601ParseResult result) throws Iso8601DateParseException,
+			Iso8601TimeParseException {
+		scanInstant(s, start, end, result);
+		return EpochArithmetic.scale(result.epochSecond, 
+				EpochArithmetic.MILLIS_PER_SECOND, 
+				result.nano/NANOS_PER_MILLI);
+	}
+	
+	/**
+	 * Parses the date/time in s and returns the instant it denotes as 
+	 * 	nanoseconds since 1970-01-01T00:00:00Z.  See 
+	 * 	parseToEpochNanos(CharSequence, int, int, Iso8601ParseResult).
+	 * 
+	 * @param s  The date/time
+	 * @param result  Receives the precision and offset of the date/time
+	 * @return Nanoseconds since the epoch
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public long parseToEpochNanos(String s, Iso8601ParseResult result) 
+			throws Iso8601DateParseException, Iso8601TimeParseException {
+		return parseToEpochNanos(s, 0, s.length(), result);
+	}
+	
+	/**
+	 * As parseToEpochMillis(), but returns nanoseconds since 
+	 * 	1970-01-01T00:00:00Z, which a long can hold only for the years 1677
+	 * 	through 2262.  Outside them, an IllegalArgumentException is thrown.
+	 * 
+	 * @param s  The characters containing the date/time
+	 * @param start  Index of the first character of the date/time
+	 * @param end  Index just past the last character of the date/time
+	 * @param result  Receives the precision (a TimePrecision code) and the
+	 * 			offset in minutes of the date/time, along with its fields and
+	 * 			format flags
+	 * @return Nanoseconds since the epoch
+	 * @throws Iso8601DateParseException
+	 * @throws Iso8601TimeParseException
+	 */
+	public long parseToEpochNanos(CharSequence s, int start, int end, 
+			Iso8601ParseResult result) throws Iso8601DateParseException,
+			Iso8601TimeParseException {
+		scanInstant(s, start, end, result);
+		return EpochArithmetic.scale(result.epochSecond, 
+				EpochArithmetic.NANOS_PER_SECOND, result.nano);
+	}
+	
+	/**
+	 * Parses the date/time in s without throwing.  See 
+	 * 	tryParse(CharSequence, int, int, Iso8601ParseResult).
+	 * 
+	 * @param s  The date/time
+	 * @param result  Receives the format flags, or the error code and index
+	 * @return The parsed date/time, or null if s is not a legal date/time
+	 */
+	public Iso8601DateTime tryParse(String s, Iso8601ParseResult result) {
+		return tryParse(s, 0, s.length(), result);
+	}
+	
+	/**
+	 * Parses the date/time in s[start, end) without throwing, for input in
+	 * 	which bad date/times are routine.  A bad date/time costs about what
+	 * 	a good one does: instead of an exception, null is returned, and 
+	 * 	result.getErrorCode() and result.getErrorIndex() say what was 
+	 * 	wrong and where.
+	 * 
+	 * @param s  The characters containing the date/time
+	 * @param start  Index of the first character of the date/time
+	 * @param end  Index just past the last character of the date/time
+	 * @param result  Receives the format flags, or the error code and index
+	 * @return The parsed date/time, or null if s[start, end) is not a legal
+	 * 			date/time
+	 */
+	public Iso8601DateTime tryParse(CharSequence s, int start, int end,
+			Iso8601ParseResult result) {
+		Iso8601DateParser.checkRange(s.length(), start, end);
+		if (scan(s, start, end, result) != Iso8601ParseResult.NO_ERROR) {
+			return null;
+		}
+		return new Iso8601DateTime(
+				Iso8601DateParser.toDate(result.packedDate), 
+				tp.toTime(result));
+	}
+	
+	/**
+	 * Finds the instant denoted by the date/time in s without throwing.  
+	 * 	See tryParseToEpoch(CharSequence, int, int, Iso8601ParseResult).
+	 * 
+	 * @param s  The date/time
+	 * @param result  Receives the instant, precision, and offset, or the
+	 * 			error code and index
+	 * @return true if s is a legal date/time
+	 */
+	public boolean tryParseToEpoch(String s, Iso8601ParseResult result) {
+		return tryParseToEpoch(s, 0, s.length(), result);
+	}
+	
+	/**
+	 * Finds the instant denoted by the date/time in s[start, end), as 
+	 * 	parseToEpochMillis() does, but without throwing.  On success, the 
+	 * 	instant is in result.getEpochSecond() and result.getNano(); 
+	 * 	otherwise, result.getErrorCode() and result.getErrorIndex() say 
+	 * 	what was wrong and where.
+	 * 
+	 * @param s  The characters containing the date/time
+	 * @param start  Index of the first character of the date/time
+	 * @param end  Index just past the last character of the date/time
+	 * @param result  Receives the instant, precision, and offset, or the
+	 * 			error code and index
+	 * @return true if s[start, end) is a legal date/time
+	 */
+	public boolean tryParseToEpoch(CharSequence s, int start, int end,
+			Iso8601ParseResult result) {
+		Iso8601DateParser.checkRange(s.length(), start, end);
+		if (scan(s, start, end, result) != Iso8601ParseResult.NO_ERROR) {
+			return false;
+		}
+		setInstant(result);
+		return true;
+	}
+	
+	static final int NANOS_PER_MILLI = 1000000;
+	
+	/*
+	 * Scans s[start, end) in one pass: the 'T' designator is located by
+	 * 	position (see Iso8601DateParser.findTimeDesignator()), the date is 
+	 * 	scanned up to it and the time from it, and basic vs. extended is 
+	 * 	taken from what the date scanner actually saw rather than by 
+	 * 	searching the date text for '-' again.
+	 * 
+	 * Nothing is thrown or allocated: the fields go into result, along with 
+	 * 	the epoch day of the date, and the return value is NO_ERROR or one
+	 * 	of the Iso8601ParseResult error codes (also left in result, with 
+	 * 	the index at which the problem was found), which throwScanError()
+	 * 	turns into the exception that parse() throws.  The codes are tested
+	 * 	in the order in which parse() has always checked things, so that 
+	 * 	the exception thrown for text with several problems has not changed.
+	 * 	The caller checks the range.
+	 */
+	int scan(CharSequence s, int start, int end, Iso8601ParseResult result) {
+		result.reset();
+		int t = dp.findTimeDesignator(s, start, end);
+		if (t < 0) {
+			return result.fail(Iso8601ParseResult.NO_TIME_DESIGNATOR, end);
+		}
+		
+		long packedDate = dp.scan(s, start, t);
+		result.packedDate = packedDate;
+		if (Iso8601DateParser.getConfigurationCode(packedDate) == 
+				Iso8601DateParser.CONFIG_ERROR) {
+			return result.fail(Iso8601ParseResult.DATE_FORMAT, 
+					Iso8601DateParser.getErrorIndex(packedDate));
+		}
+		boolean isDay = Iso8601DateParser.isDay(packedDate);
+		if (isDay) {
+			result.epochDay = Iso8601DateParser.toEpochDay(packedDate);
+			if (result.epochDay == Iso8601DateParser.INVALID_DAY) {
+				return result.fail(Iso8601ParseResult.DATE_VALUE, start);
+			}
+		}
+		
+		/*
+		 * The time parser accepts a leading 'T', so we hand it the 
+		 * 	designator along with the time.  A second 'T' is then an illegal
+		 * 	hour, just as it was an illegal extra part before.
+		 */
+		int i = tp.scan(s, t, end, result);
+		if (i >= 0) {
+			return result.fail(Iso8601ParseResult.TIME_FORMAT, i);
+		}
+		
+		boolean isDateExtended = Iso8601DateParser.isExtended(packedDate);
+		boolean consistent = (isDateExtended && result.extendedConsistent) ||
+			(!isDateExtended && !result.extended);
+		if (!consistent) {
+			return result.fail(Iso8601ParseResult.INCONSISTENT_FORMAT, t);
+		}
+		if (!isDay) {
+			return result.fail(Iso8601ParseResult.NOT_A_DAY, start);
+		}
+		result.hasDate = true;
+		result.extended = isDateExtended;
+		result.extendedConsistent = true;
+		return Iso8601ParseResult.NO_ERROR;
+	}
+	
+	/*
+	 * Throws the exception parse() throws for text that scan() rejected 
+	 * 	with the given code.
+	 */
+	void throwScanError(int code, CharSequence s, int start, int end,
+			Iso8601ParseResult result) throws Iso8601DateParseException, 
+			Iso8601TimeParseException {
+		if (code == Iso8601ParseResult.NO_TIME_DESIGNATOR) {
+			throw new Iso8601DateParseException("Date and time must both be " +
+					"present, and the only things present.",
+					Iso8601ParseResult.STACK_TRACES);
+		}
+		int t = dp.findTimeDesignator(s, start, end);
+		if (code == Iso8601ParseResult.DATE_FORMAT) {
+			throw Iso8601DateParser.createException(s, start, t, 
+					result.packedDate);
+		}
+		/*
+		 * Iso8601Date's constructors say what is wrong with the date 
+		 * 	better than we can, and parse() has always built the date 
+		 * 	before looking at the time, so let them throw first.
+		 */
+		Iso8601DateParser.toDate(result.packedDate);
+		switch (code) {
+			case Iso8601ParseResult.TIME_FORMAT:
+				throw Iso8601TimeParser.createException(s, t, end);
+			case Iso8601ParseResult.INCONSISTENT_FORMAT:
+				throw new Iso8601DateParseException("If date is in " +
+						"extended format, then time must be also (" + 
+						s.subSequence(start, end) + ")",
+						Iso8601ParseResult.STACK_TRACES);
+			default:
+				throw new IllegalArgumentException("The date does not " +
+						"represent a day, and thus time of day is " +
+						"meaningless (" + s.subSequence(start, end) + ")");
+		}
+	}
+	
+	/*
+	 * Scans s[start, end), throwing what parse() would throw, and sets the
+	 * 	instant in result.
+	 */
+	private void scanInstant(CharSequence s, int start, int end, 
+			Iso8601ParseResult result) throws Iso8601DateParseException, 
+			Iso8601TimeParseException {
+		Iso8601DateParser.checkRange(s.length(), start, end);
+		int code = scan(s, start, end, result);
+		if (code != Iso8601ParseResult.NO_ERROR) {
+			throwScanError(code, s, start, end, result);
+		}
+		setInstant(result);
+	}
+	
+	/*
+	 * Sets the epoch second and nano, precision, and offset in minutes 
+	 * 	from the fields of a successful scan().
+	 */
+	static void setInstant(Iso8601ParseResult result) {
+		/*
+		 * An hour of 24 comes through as second 86400 of the day, which is
+		 * 	second 0 of the next.
+		 */
+		int secondOfDay = result.hour*3600;
+		long nano = 0L;
+		byte precision = TimePrecision.HOUR;
+		if (result.minute >= 0) {
+			secondOfDay += result.minute*60;
+			precision = TimePrecision.MINUTE;
+		}
+		if (result.second >= 0) {
+			secondOfDay += result.second;
+			precision = TimePrecision.SECOND;
+			if (result.fractionStart >= 0) {
+				precision = (byte)Math.min(result.fractionDigits, 
+						TimePrecision.NANOSECOND);
+				nano = Iso8601TimeParser.fractionDigits(result, 9);
+			}
+		} else if (result.fractionStart >= 0) {
+			/*
+			 * A fractional hour or minute.  Twelve digits of it, times the 
+			 * 	3600 or 60 seconds in the unit, is the offset into the unit
+			 * 	in picoseconds, which still fits easily in a long.
+			 */
+			int unitSeconds = (result.minute >= 0) ? 60 : 3600;
+			long nanos = Iso8601TimeParser.fractionDigits(result, 12)*
+					unitSeconds/1000L;
+			secondOfDay += (int)(nanos/EpochArithmetic.NANOS_PER_SECOND);
+			nano = nanos%EpochArithmetic.NANOS_PER_SECOND;
+		}
+		
+		int offsetMinutes = 0;
+		if (!result.isUtc && result.tzHour != 0) {
+			int tzMinute = Math.max(result.tzMinute, 0);
+			offsetMinutes = result.tzHour*60 + 
+					((result.tzHour < 0) ? -tzMinute : tzMinute);
+		}
+		
+		result.epochSecond = result.epochDay*EpochArithmetic.SECONDS_PER_DAY +
+				secondOfDay - offsetMinutes*60L;
+		result.nano = (int)nano;
+		result.precision = precision;
+		result.offsetMinutes = offsetMinutes;
+	}
+}
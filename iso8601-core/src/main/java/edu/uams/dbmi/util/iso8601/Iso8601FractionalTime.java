@@ -0,0 +1,109 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+public class Iso8601FractionalTime extends Iso8601Time {
+	
+	/*
+	 * The fraction of the minute, if the time has a minute, or else of the
+	 * 	hour.
+	 */
+	final double fr;
+	
+	public Iso8601FractionalTime(int hr, double fr) {
+		super(hr);
+		this. fr = fr;
+	}
+	
+	public Iso8601FractionalTime(int hr, int min, double fr) {
+		super(hr, min);
+		this. fr = fr;
+	}
+	
+	public Iso8601FractionalTime(IsoFractionalTimeBuilder tb) {
+		super(tb);
+		this. fr = tb.fr;
+	}
+	
+	@Override
+	Iso8601Time withHour(int hour) {
+		IsoFractionalTimeBuilder b = new IsoFractionalTimeBuilder(hour);
+		if (mi != ABSENT) {
+			b.setMinute(mi);
+		}
+		b.setFraction(fr);
+		copyTimeZone(b);
+		return new Iso8601FractionalTime(b);
+	}
+	
+	/**
+	 * 
+	 * @return The fraction of the hour, or null if the time has a minute
+	 */
+	public Double getFractionalHour() {
+		return (mi == ABSENT) ? Double.valueOf(fr) : null;
+	}
+	
+	/**
+	 * 
+	 * @return The fraction of the minute, or null if the time has no minute
+	 */
+	public Double getFractionalMinute() {
+		return (mi != ABSENT) ? Double.valueOf(fr) : null;
+	}
+
+	@Override
+	long nanoOfDay() {
+		long n = hr*EpochArithmetic.NANOS_PER_HOUR;
+		if (mi == ABSENT) {
+			return n + Math.round(fr*EpochArithmetic.NANOS_PER_HOUR);
+		}
+		return n + mi*EpochArithmetic.NANOS_PER_MINUTE + 
+				Math.round(fr*EpochArithmetic.NANOS_PER_MINUTE);
+	}
+	
+	@Override
+	byte precision() {
+		return (mi == ABSENT) ? TimePrecision.HOUR : TimePrecision.MINUTE;
+	}
+	
+	@Override
+	int compareSameClass(Iso8601Time t) {
+		return Double.compare(fr, ((Iso8601FractionalTime)t).fr);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		boolean eq = false;
+		if (o instanceof Iso8601FractionalTime) {
+			Iso8601FractionalTime t = (Iso8601FractionalTime)o;
+			eq = (hr == t.hr && mi == t.mi && tzHr == t.tzHr && 
+					tzMin == t.tzMin && 
+					Double.doubleToLongBits(fr) == 
+						Double.doubleToLongBits(t.fr));
+		}
+		return eq;
+	}
+	
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(fr);
+		int h = hr;
+		h = 31*h + mi;
+		h = 31*h + tzHr;
+		h = 31*h + tzMin;
+		return 31*h + (int)(bits ^ (bits >>> 32));
+	}
+}
@@ -0,0 +1,167 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A column parser that splits array columns into pieces and parses them
+ * 	in parallel on a ForkJoinPool.  Each piece writes its own rows of the
+ * 	(shared) output arrays and flags its errors in a BitSet of its own, 
+ * 	and the BitSets are merged as the pieces are joined.
+ * 
+ * Columns passed as Lists are parsed sequentially, as by 
+ * 	Iso8601DateTimeColumnParser.
+ * 
+ * @author williamhogan
+ *
+ */
+public class Iso8601ParallelDateTimeColumnParser extends 
+		Iso8601DateTimeColumnParser {
+	
+	/**
+	 * Pieces of this many rows or fewer are parsed without further 
+	 * 	splitting, unless another threshold is given.
+	 */
+	public static final int DEFAULT_THRESHOLD = 16384;
+	
+	final ForkJoinPool pool;
+	final int threshold;
+	
+	/**
+	 * Parses on a pool shared by all parsers created this way, with as 
+	 * 	many threads as there are processors, splitting columns down to
+	 * 	DEFAULT_THRESHOLD rows.
+	 */
+	public Iso8601ParallelDateTimeColumnParser() {
+		this(DefaultPool.POOL, DEFAULT_THRESHOLD);
+	}
+	
+	/**
+	 * 
+	 * @param pool  The pool on which to parse
+	 * @param threshold  Pieces of this many rows or fewer are parsed without
+	 * 			further splitting
+	 */
+	public Iso8601ParallelDateTimeColumnParser(ForkJoinPool pool, 
+			int threshold) {
+		if (pool == null) {
+			throw new NullPointerException("Iso8601ParallelDateTimeColumnParser" +
+					"(): pool may not be null.");
+		}
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Threshold must be at least 1 (" +
+					threshold + ")");
+		}
+		this. pool = pool;
+		this. threshold = threshold;
+	}
+	
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+	
+	public int getThreshold() {
+		return threshold;
+	}
+	
+	@Override
+	int parse(CharSequence[] column, int from, int to, long scale,
+			long[] epochs, byte[] precision, short[] offsetMinutes, 
+			BitSet errors) {
+		Iso8601DateParser.checkRange(column.length, from, to);
+		checkOutputs(to, epochs, precision, offsetMinutes);
+		errors.clear(from, to);
+		if (to - from <= threshold) {
+			return parseRange(column, from, to, scale, epochs, precision, 
+					offsetMinutes, errors, 0);
+		}
+		
+		BitSet pieceErrors = pool.invoke(new ColumnTask(column, from, to, 
+				scale, epochs, precision, offsetMinutes));
+		int failed = 0;
+		for (int i=pieceErrors.nextSetBit(0); i>=0; 
+				i=pieceErrors.nextSetBit(i+1)) {
+			errors.set(from + i);
+			failed++;
+		}
+		return failed;
+	}
+	
+	/*
+	 * Parses column[from, to), returning its errors at bit (i - from) for
+	 * 	row i.
+	 */
+	class ColumnTask extends RecursiveTask<BitSet> {
+		private static final long serialVersionUID = 1L;
+		
+		final CharSequence[] column;
+		final int from;
+		final int to;
+		final long scale;
+		final long[] epochs;
+		final byte[] precision;
+		final short[] offsetMinutes;
+		
+		ColumnTask(CharSequence[] column, int from, int to, long scale, 
+				long[] epochs, byte[] precision, short[] offsetMinutes) {
+			this. column = column;
+			this. from = from;
+			this. to = to;
+			this. scale = scale;
+			this. epochs = epochs;
+			this. precision = precision;
+			this. offsetMinutes = offsetMinutes;
+		}
+
+		@Override
+		protected BitSet compute() {
+			if (to - from <= threshold) {
+				BitSet errors = new BitSet();
+				parseRange(column, from, to, scale, epochs, precision,
+						offsetMinutes, errors, from);
+				return errors;
+			}
+			
+			int mid = (from + to) >>> 1;
+			ColumnTask left = new ColumnTask(column, from, mid, scale, epochs,
+					precision, offsetMinutes);
+			ColumnTask right = new ColumnTask(column, mid, to, scale, epochs,
+					precision, offsetMinutes);
+			right.fork();
+			BitSet errors = left.compute();
+			BitSet rightErrors = right.join();
+			/*
+			 * Errors are rare, so moving the right half's bits over one at
+			 * 	a time is cheaper than it sounds.
+			 */
+			int shift = mid - from;
+			for (int i=rightErrors.nextSetBit(0); i>=0; 
+					i=rightErrors.nextSetBit(i+1)) {
+				errors.set(shift + i);
+			}
+			return errors;
+		}
+	}
+	
+	/*
+	 * Created on first use, so that loading the class starts no threads.
+	 */
+	private static class DefaultPool {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+}
@@ -0,0 +1,249 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+/**
+ * Holds what a parser found in a piece of text, in primitive form, along
+ * 	with how the text was written (basic vs. extended format).
+ * 
+ * The parsers keep no per-parse state of their own, so that one parser
+ * 	instance can be shared by any number of threads.  Anything a caller
+ * 	needs to know about a parse beyond the parsed object itself comes back
+ * 	in one of these instead.  A result may be reused from one parse to the
+ * 	next, but unlike the parsers it must not be shared between threads.
+ * 
+ * @author williamhogan
+ *
+ */
+public final class Iso8601ParseResult {
+	/*
+	 * Error codes reported by getErrorCode() after a tryParse*() call.
+	 */
+	
+	/**
+	 * The text was parsed.
+	 */
+	public static final int NO_ERROR = 0;
+	/**
+	 * A date/time has no 'T' between the date and the time.
+	 */
+	public static final int NO_TIME_DESIGNATOR = 1;
+	/**
+	 * The date is not in any ISO 8601 date format.
+	 */
+	public static final int DATE_FORMAT = 2;
+	/**
+	 * The date is in an ISO 8601 format, but names a month, week, or day 
+	 * 	that does not exist (e.g., 2011-13 or 2011-04-31).
+	 */
+	public static final int DATE_VALUE = 3;
+	/**
+	 * The time is not in any ISO 8601 time format, or is out of range 
+	 * 	(e.g., 25:00).
+	 */
+	public static final int TIME_FORMAT = 4;
+	/**
+	 * The date is in the extended format but the time is not.
+	 */
+	public static final int INCONSISTENT_FORMAT = 5;
+	/**
+	 * A date/time has a date that is not a single day (e.g., 2011-11), 
+	 * 	so a time of day is meaningless.
+	 */
+	public static final int NOT_A_DAY = 6;
+	
+	/**
+	 * Set this system property to "true" to have the parsers throw 
+	 * 	Iso8601DateParseException and Iso8601TimeParseException without
+	 * 	capturing stack traces, for callers that use exceptions to reject
+	 * 	bad input and can't switch to tryParse().  It is read once, when
+	 * 	this class is loaded.
+	 */
+	public static final String STACKLESS_EXCEPTIONS_PROPERTY = 
+		"edu.uams.dbmi.util.iso8601.stacklessExceptions";
+	
+	static final boolean STACK_TRACES = 
+		!Boolean.getBoolean(STACKLESS_EXCEPTIONS_PROPERTY);
+	
+	/*
+	 * The date, packed as described in Iso8601DateParser.
+	 */
+	boolean hasDate;
+	long packedDate;
+	
+	/*
+	 * The time of day.  The minute, second, and tzMinute are -1 when absent,
+	 * 	and fractionStart is -1 when there is no fraction.  The fraction 
+	 * 	digits are accumulated into fraction as they are scanned, up to 
+	 * 	MAX_FRACTION_DIGITS of them; text is kept only so that longer 
+	 * 	fractions can still be converted exactly.
+	 */
+	static final int MAX_FRACTION_DIGITS = 18;
+	
+	boolean hasTime;
+	int hour;
+	int minute;
+	int second;
+	long fraction;
+	int fractionDigits;
+	CharSequence text;
+	int fractionStart;
+	int fractionEnd;
+	boolean isUtc;
+	int tzHour;
+	int tzMinute;
+	
+	boolean extended;
+	boolean extendedConsistent;
+	
+	/*
+	 * The instant, set only by the parseToEpoch*() methods, and the day 
+	 * 	it falls on (before any time zone offset is applied).
+	 */
+	long epochDay;
+	long epochSecond;
+	int nano;
+	byte precision;
+	int offsetMinutes;
+	
+	int errorCode;
+	int errorIndex;
+	
+	public Iso8601ParseResult() {
+		reset();
+	}
+	
+	void reset() {
+		hasDate = false;
+		packedDate = 0L;
+		hasTime = false;
+		hour = 0;
+		minute = -1;
+		second = -1;
+		fraction = 0L;
+		fractionDigits = 0;
+		text = null;
+		fractionStart = -1;
+		fractionEnd = -1;
+		isUtc = false;
+		tzHour = 0;
+		tzMinute = -1;
+		extended = false;
+		extendedConsistent = false;
+		epochDay = 0L;
+		epochSecond = 0L;
+		nano = 0;
+		precision = TimePrecision.HOUR;
+		offsetMinutes = 0;
+		errorCode = NO_ERROR;
+		errorIndex = -1;
+	}
+	
+	/*
+	 * Records why the text could not be parsed, and returns the code.
+	 */
+	int fail(int code, int index) {
+		errorCode = code;
+		errorIndex = index;
+		return code;
+	}
+	
+	/**
+	 * 
+	 * @return true if the text that was parsed used the extended format
+	 * 			(hyphens in dates, colons in times).
+	 */
+	public boolean isExtended() {
+		return extended;
+	}
+	
+	/**
+	 * Some text, such as a bare hour or a bare year, has no separators in
+	 * 	either format, and so is consistent with the extended format even
+	 * 	though isExtended() is false.
+	 * 
+	 * @return true if the text that was parsed could appear alongside text
+	 * 			in the extended format.
+	 */
+	public boolean isExtendedConsistent() {
+		return extendedConsistent;
+	}
+	
+	/**
+	 * 
+	 * @return The seconds from 1970-01-01T00:00:00Z to the instant found
+	 * 			by the last parseToEpoch*() call.
+	 */
+	public long getEpochSecond() {
+		return epochSecond;
+	}
+	
+	/**
+	 * 
+	 * @return The nanoseconds past getEpochSecond(), from 0 to 999,999,999.
+	 * 			Digits beyond the ninth are truncated.
+	 */
+	public int getNano() {
+		return nano;
+	}
+	
+	/**
+	 * 
+	 * @return One of the TimePrecision codes, giving the smallest unit 
+	 * 			written in the time that was parsed.
+	 */
+	public byte getPrecision() {
+		return precision;
+	}
+	
+	/**
+	 * 
+	 * @return The offset from UTC, in minutes, of the time that was parsed.
+	 * 			Zero both for UTC and when no time zone was given, which 
+	 * 			isTimeZoneSpecified() tells apart.
+	 */
+	public int getOffsetMinutes() {
+		return offsetMinutes;
+	}
+	
+	/**
+	 * 
+	 * @return true if the time that was parsed had a time zone designator
+	 * 			(Z or an offset), false if UTC was assumed.
+	 */
+	public boolean isTimeZoneSpecified() {
+		return isUtc || tzHour != 0;
+	}
+	
+	/**
+	 * 
+	 * @return NO_ERROR if the last tryParse*() call succeeded, otherwise
+	 * 			one of the other codes defined here, saying why it failed.
+	 */
+	public int getErrorCode() {
+		return errorCode;
+	}
+	
+	/**
+	 * 
+	 * @return The index in the text of the character at which the last 
+	 * 			tryParse*() call failed (the length of the text, if it was
+	 * 			too short), or -1 if it succeeded.  For DATE_VALUE and 
+	 * 			NOT_A_DAY, this is the start of the date.
+	 */
+	public int getErrorIndex() {
+		return errorIndex;
+	}
+}
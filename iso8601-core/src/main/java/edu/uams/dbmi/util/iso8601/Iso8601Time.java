@@ -0,0 +1,316 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.Comparator;
+
+/**
+ * A key ambiguity in the standard is what a fractional hour or minute
+ * 	represents.  For example, does 12.5 represent the minute 12:30, the
+ *  second 12:30:00, the millisecond 12:30:00.000, or one tenth of an
+ *  hour (from 12.5 to 12.599999999...), which is 6 minutes (and thus
+ *  would be the interval from 12:30:00.000 to 12:35:59.999...). In the 
+ *  latter case, would 12.50 represent an interval 1/100th of an hour?
+ *  Which is 0.6 minutes or 36 seconds or 12:30:00.000 to 12:30:35.999...).
+ *  
+ *  So, fractional times are a real problem, except for fractional seconds,
+ *  where we can say what is represented is a decisecond, a centisecond, or
+ *  a millisecond, depending on the precision (out to 3 digits).
+ *  
+ *  Thus, we need to distinguish objects that represent actual intervals
+ *  vs. those that are ambiguous.  Key question next is whether we use
+ *  two classes to do it, or use a single flag in this class.
+ *  
+ *  Also, note that if no time zone is specified, then there is also much
+ *  	ambiguity: the time object could represent one of ~41 times (all
+ *  	the time zones across the world end up with ~41 unique offsets 
+ *  	from UTC, including UTC (offset is zero) itself).
+ *  
+ *  THIS CLASS ASSUMES UTC WHEN NO TIME ZONE IS SPECIFIED.  Sorry folks, 
+ *  	I just can't brook the ambiguity.  Don't be ambiguous, and you'll
+ *  	never encounter unanticipated behavior!
+ */
+public abstract class Iso8601Time implements Comparable<Iso8601Time> {
+	/**
+	 * The value of a field (e.g., minute) that the time does not have.
+	 */
+	public static final int ABSENT = -1;
+	
+	/*
+	 * All fields are set once by the constructors, and bytes are wide 
+	 * 	enough for every legal value, so instances are small, immutable, 
+	 * 	and safe to share between threads.
+	 */
+	final byte hr;
+	final byte mi;
+
+	final byte tzHr;
+	final byte tzMin;
+	
+	final boolean isUTC;
+	final boolean hasTz;
+	
+	public Iso8601Time(long timeInMillis) {
+		this(builderForMillis(timeInMillis));
+	}
+	
+	public Iso8601Time(int hr) {
+		this(new IsoUnitTimeBuilder(hr));
+	}
+	
+	public Iso8601Time(int hr, int min) {
+		this(builder(hr, min));
+	}
+	
+	public Iso8601Time(IsoTimeBuilder b) {
+		checkHour(b.hr);
+		this. hr = (byte)(int)b.hr;
+		if (b.min != null) {
+			if (!checkMinute(b.min)) {
+				throw new IllegalArgumentException("Minute must be between 0" +
+						" and 59, inclusive");
+			}
+			this. mi = (byte)(int)b.min;
+		} else {
+			this. mi = ABSENT;
+		}
+
+		hasTz = (b.isUtc || b.tzHr != 0 || b.tzMin != 0);
+		if (hasTz) {
+			if (!checkTzHour(b.tzHr)) {
+				throw new IllegalArgumentException("Time zone hour offset " +
+						"must be between -12 and +14 inclusive.");
+			}
+			if (!checkTzMin(b.tzMin)) {
+				throw new IllegalArgumentException("Time zone minute offset " +
+						"must be between 0 and 59, inclusive.");
+			}
+			this. tzHr = (byte)b.tzHr;
+			this. tzMin = (byte)b.tzMin;
+			this. isUTC = b.isUtc;
+		}  else {
+			this. tzHr = 0;
+			this. tzMin = 0;
+			this. isUTC = true;
+		}
+	}
+	
+	private static IsoTimeBuilder builderForMillis(long timeInMillis) {
+		int hr = (int) (timeInMillis / 3600000L);
+		int mi = (int) ((timeInMillis % 3600000L) / 60000L);
+		return builder(hr, mi);
+	}
+	
+	private static IsoTimeBuilder builder(int hr, int min) {
+		IsoTimeBuilder b = new IsoUnitTimeBuilder(hr);
+		b.setMinute(min);
+		return b;
+	}
+
+	public boolean checkTzMin(int min) {
+		return (min > - 1 && min < 60);
+	}
+	
+	private static boolean checkTzHour(int hr) {
+		return (hr >= -12 && hr <= 14);
+	}
+	
+	private boolean checkMinute(int min) {
+		return ((hr < 24 && min > -1 && min < 60) ||
+				(hr == 24 && min == 0));
+	}
+
+	private static void checkHour(int hr) {
+		/*
+		 * ISO8601 allows hour == 24, where it represents 00:00 of the 
+		 *  	following day (i.e., midnight tonight, 2011-10-28, would
+		 *  	be 2011-10-28T24:00:00 a.k.a. 2011-10-29T00:00:00).
+		 */
+		if (hr < 0 || hr > 24) {
+			throw new  IllegalArgumentException("Hour must be between 0 and " +
+					"24, inclusive");
+		}
+	}
+	
+	/*
+	 * Copies the time zone of this time to a builder.
+	 */
+	void copyTimeZone(IsoTimeBuilder b) {
+		if (hasTz) {
+			b.setIsUtc(isUTC);
+			b.setTimeZoneOffsetHour(tzHr);
+			b.setTimeZoneOffsetMinute(tzMin);
+		}
+	}
+	
+	/*
+	 * The same time, but with the given hour.  Iso8601DateTime uses it to
+	 * 	turn 24:00 into 00:00 of the next day.
+	 */
+	abstract Iso8601Time withHour(int hour);
+	
+	public int getHour() {
+		return hr;
+	}
+	
+	/**
+	 * 
+	 * @return true if the time has a minute, false if it only has an hour
+	 */
+	public boolean hasMinute() {
+		return mi != ABSENT;
+	}
+	
+	/**
+	 * 
+	 * @return The minute
+	 * @throws IllegalStateException if the time has no minute (see 
+	 * 			hasMinute())
+	 */
+	public int getMinute() {
+		if (mi == ABSENT) {
+			throw new IllegalStateException("This Iso8601Time object does " +
+					"not have a minute.");
+		}
+		return mi;
+	}
+	
+	public boolean isTimeZoneSpecified() {
+		return hasTz;
+	}
+	
+	public int getTimeZoneHourOffset() {
+		return tzHr;
+	}
+	
+	public int getTimeZoneMinuteOffset() {
+		return tzMin;
+	}
+	
+	/*
+	 * The offset from UTC in minutes.  The minute offset is never 
+	 * 	negative; it takes the sign of the hour offset, so -03:30 is -210.
+	 */
+	int offsetMinutes() {
+		return tzHr*60 + ((tzHr < 0) ? -tzMin : tzMin);
+	}
+	
+	public boolean isUtcTimeZone() {
+		return hasTz && isUTC;
+	}
+	
+	/*
+	 * Nanoseconds from local midnight to the start of the time, so 24:00 
+	 * 	and 23:59:60 are both 86,400 seconds.
+	 */
+	abstract long nanoOfDay();
+	
+	/*
+	 * The TimePrecision code of the time.
+	 */
+	abstract byte precision();
+	
+	/*
+	 * Orders two times of the same class whose hours, minutes, offsets,
+	 * 	and precisions are equal, by the fields only that class has.
+	 */
+	abstract int compareSameClass(Iso8601Time t);
+	
+	@Override
+	public abstract boolean equals(Object o);
+	
+	@Override
+	public abstract int hashCode();
+	
+	/**
+	 * Orders times by the instant they start at (the local time less the 
+	 * 	offset from UTC, as if on the same day), and times that start at 
+	 * 	the same instant from the coarsest precision to the finest (so 12 
+	 * 	comes before 12:00, which comes before 12:00:00).  Times that are 
+	 * 	still tied but not equal (e.g., 12:00Z and 07:00-05:00) are ordered
+	 * 	by offset and then field by field, so the order is consistent with 
+	 * 	equals().
+	 */
+	public int compareTo(Iso8601Time t) {
+		return compare(this, t, true);
+	}
+	
+	/**
+	 * 
+	 * @param coarserFirst Whether, among times that start at the same 
+	 * 			instant, coarser precisions come first (as in compareTo())
+	 * 			or last
+	 * @return A comparator that orders times by instant, then by 
+	 * 			precision.  The same instance is returned on every call.
+	 */
+	public static Comparator<Iso8601Time> instantOrder(boolean coarserFirst) {
+		return (coarserFirst) ? COARSER_FIRST : FINER_FIRST;
+	}
+	
+	private static final Comparator<Iso8601Time> COARSER_FIRST = 
+			new Comparator<Iso8601Time>() {
+		public int compare(Iso8601Time t1, Iso8601Time t2) {
+			return Iso8601Time.compare(t1, t2, true);
+		}
+	};
+	
+	private static final Comparator<Iso8601Time> FINER_FIRST = 
+			new Comparator<Iso8601Time>() {
+		public int compare(Iso8601Time t1, Iso8601Time t2) {
+			return Iso8601Time.compare(t1, t2, false);
+		}
+	};
+	
+	static int compare(Iso8601Time t1, Iso8601Time t2, boolean coarserFirst) {
+		int c = Long.compare(
+				t1.nanoOfDay() - t1.offsetMinutes()*EpochArithmetic.NANOS_PER_MINUTE,
+				t2.nanoOfDay() - t2.offsetMinutes()*EpochArithmetic.NANOS_PER_MINUTE);
+		if (c == 0) {
+			c = comparePrecision(t1, t2, coarserFirst);
+		}
+		if (c == 0) {
+			c = Integer.compare(t1.offsetMinutes(), t2.offsetMinutes());
+		}
+		if (c == 0) {
+			c = compareFields(t1, t2);
+		}
+		return c;
+	}
+	
+	static int comparePrecision(Iso8601Time t1, Iso8601Time t2, 
+			boolean coarserFirst) {
+		return (coarserFirst) ? 
+				Integer.compare(t1.precision(), t2.precision()) :
+				Integer.compare(t2.precision(), t1.precision());
+	}
+	
+	/*
+	 * The last resort for times that are tied on everything else: hour, 
+	 * 	minute, unit times before fractional ones, then the fields of the 
+	 * 	class.
+	 */
+	static int compareFields(Iso8601Time t1, Iso8601Time t2) {
+		int c = Integer.compare(t1.hr, t2.hr);
+		if (c == 0) {
+			c = Integer.compare(t1.mi, t2.mi);
+		}
+		if (c == 0) {
+			boolean f1 = (t1 instanceof Iso8601FractionalTime);
+			boolean f2 = (t2 instanceof Iso8601FractionalTime);
+			c = (f1 == f2) ? t1.compareSameClass(t2) : ((f1) ? 1 : -1);
+		}
+		return c;
+	}
+}
@@ -0,0 +1,226 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.io.IOException;
+
+
+public class Iso8601TimeFormatter {
+	/*
+	 * Copied from the caller's options at construction, and never changed
+	 * 	or handed out, so formatters are immutable and thread safe.
+	 */
+	final FormatOptions options;
+
+	public static class FormatOptions implements Cloneable {
+		boolean extended;
+		boolean precedeWithT;
+		boolean includeTzMinIfZero;
+		boolean includeTz;
+		boolean includeDefaultTzIfNull;
+		
+		public FormatOptions() {
+		}
+
+		public void setExtended(boolean extended) {
+			this. extended = extended;
+		}
+		
+		public boolean isExtended() {
+			return extended;
+		}
+		
+		public void setPrecedeWithT(boolean precedeWithT) {
+			this.precedeWithT = precedeWithT;
+		}
+		
+		public boolean isPrecedeWithT() {
+			return precedeWithT;
+		}
+		
+		public void setIncludeTzMinIfZero(boolean includeTzMinIfZero) {
+			this.includeTzMinIfZero = includeTzMinIfZero;
+		}
+		
+		public boolean includeTzMinIfZero() {
+			return includeTzMinIfZero;
+		}
+		
+		public Object clone() {
+			try {
+				return super.clone();
+			} catch (CloneNotSupportedException e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 *	Creates a formatter with the following default options:
+	 *		precede with 'T': true
+	 *		include time zone minutes if zero: true
+	 *		extended format: true
+	 */
+	public Iso8601TimeFormatter() {
+		FormatOptions o = new FormatOptions();
+		o.setExtended(true);
+		o.setIncludeTzMinIfZero(true);
+		o.setPrecedeWithT(true);
+		this. options = o;
+	}
+	
+	public Iso8601TimeFormatter(FormatOptions options) {
+		this. options = (FormatOptions)options.clone();
+	}
+	
+	public String format(Iso8601Time t) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			write(t, sb, 0);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Formats the time straight into an Appendable (e.g., a Writer or a 
+	 * 	StringBuilder), without building a String first.
+	 * 
+	 * @return The number of characters written
+	 * @throws IOException if the Appendable does
+	 */
+	public int formatTo(Iso8601Time t, Appendable out) throws IOException {
+		return write(t, out, 0);
+	}
+	
+	/**
+	 * Formats the time into a char[], starting at offset.
+	 * 
+	 * @return The number of characters written
+	 * @throws ArrayIndexOutOfBoundsException if the text does not fit
+	 */
+	public int formatTo(Iso8601Time t, char[] buf, int offset) {
+		try {
+			return write(t, buf, offset) - offset;
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+	
+	/**
+	 * Formats the time into a byte[] as ASCII, starting at offset.
+	 * 
+	 * @return The number of bytes written
+	 * @throws ArrayIndexOutOfBoundsException if the text does not fit
+	 */
+	public int formatTo(Iso8601Time t, byte[] buf, int offset) {
+		try {
+			return write(t, buf, offset) - offset;
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+	
+	/*
+	 * Writes the time to a FormatSink at pos, and returns the position 
+	 * 	after it.
+	 */
+	int write(Iso8601Time t, Object sink, int pos) throws IOException {
+		if (options.isPrecedeWithT()) {
+			pos = FormatSink.put(sink, pos, 'T');
+		}
+		pos = addIntegerComponent(sink, pos, t.getHour());
+		
+		if (t instanceof Iso8601UnitTime) {
+			Iso8601UnitTime tu = (Iso8601UnitTime)t;
+			byte precision = tu.getPrecision();
+			if (precision == TimePrecision.HOUR) {
+				
+			} else if (precision == TimePrecision.MINUTE) {
+				pos = addMinute(sink, pos, t);
+			} else if (precision == TimePrecision.SECOND) {
+				pos = addMinute(sink, pos, t);
+				pos = addSecond(sink, pos, tu);
+			} else {
+				pos = addMinute(sink, pos, t);
+				pos = addSecond(sink, pos, tu);
+				pos = addSubsecond(sink, pos, tu);
+			}
+		} else {
+			/*
+			 * The fraction of the hour, or else of the minute.
+			 */
+			Iso8601FractionalTime tf = (Iso8601FractionalTime)t;
+			pos = FormatSink.put(sink, pos, Double.toString(tf.fr));
+		}
+		
+		if (t.isTimeZoneSpecified()) {
+			pos = addTimeZone(sink, pos, t);
+		}
+		return pos;
+	}
+
+	protected int addSecond(Object sink, int pos, Iso8601UnitTime tu) 
+			throws IOException {
+		if (options.isExtended()) {
+			pos = FormatSink.put(sink, pos, ':');
+		}
+		return addIntegerComponent(sink, pos, tu.getSecond());
+	}
+
+	protected int addMinute(Object sink, int pos, Iso8601Time t) 
+			throws IOException {
+		if (options.isExtended()) {
+			pos = FormatSink.put(sink, pos, ':');
+		}
+		return addIntegerComponent(sink, pos, t.getMinute());
+	}
+	
+	/*
+	 * The subsecond is an integer count of 10^-precision seconds, less than
+	 * 	10^precision, so it is written as exactly precision digits with 
+	 * 	leading zeroes (e.g., 5 at millisecond precision is .005).  The 
+	 * 	field is read directly, since getSubsecond() boxes it.
+	 */
+	protected int addSubsecond(Object sink, int pos, Iso8601UnitTime tu) 
+			throws IOException {
+		pos = FormatSink.put(sink, pos, '.');
+		return FormatSink.putFixedDigits(sink, pos, tu.subSecond, 
+				tu.precision);
+	}
+
+	private int addIntegerComponent(Object sink, int pos, int i) 
+			throws IOException {
+		if (i < 0) {
+			pos = FormatSink.put(sink, pos, '-');
+			i = -i;
+		}
+		return FormatSink.put2(sink, pos, i);
+	}
+	
+	protected int addTimeZone(Object sink, int pos, Iso8601Time t) 
+			throws IOException {
+		if (t.isUtcTimeZone()) {
+			pos = FormatSink.put(sink, pos, 'Z');
+		} else if (t.isTimeZoneSpecified()) {
+			pos = Iso8601TimeZoneFormatter.writeTimeZone(sink, pos, 
+					t.getTimeZoneHourOffset(), t.getTimeZoneMinuteOffset(), 
+					options.extended, options.includeTzMinIfZero);
+		}
+		return pos;
+	}
+}
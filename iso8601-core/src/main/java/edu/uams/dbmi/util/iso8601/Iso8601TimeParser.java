@@ -0,0 +1,597 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+public class Iso8601TimeParser {
+	
+	static final String regex = "^T?((([0-1]\\d|2[0-3])(([0-5]\\d)(([0-5]\\d))?)?([\\.,]\\d+)?)|((24)((00)((00))?)?)([\\.,]0+)?)" +
+		"(Z|([+-])(0[1-9]|1[0-2])(([0-5]\\d))?)?";
+
+	static final String regex_extended = "^T?((([0-1]\\d|2[0-3])(:([0-5]\\d)(:([0-5]\\d))?)?([\\.,]\\d+)?)|((24)(:(00)(:(00))?)?)([\\.,]0+)?)" +
+		"(Z|([+-])(0[1-9]|1[0-2])(:([0-5]\\d))?)?";
+
+	
+	static final int HOUR_GROUP = 3;
+	static final int MIN_GROUP = 5;
+	static final int SEC_GROUP = 7;
+	static final int FR_GROUP = 8;
+	static final int HR24_GROUP = 10;
+	static final int MI24_GROUP = 12;
+	static final int SE24_GROUP = 14;
+	static final int FR24_GROUP = 15;
+	static final int Z_GROUP = 16;
+	static final int TZSIGN_GROUP = 17;
+	static final int TZHR_GROUP = 18;
+	static final int TZMI_GROUP = 20;
+	
+	static final int FORMAT_BASIC = 1;
+	static final int FORMAT_EXTENDED = 2;
+	
+	/*
+	 * Only compiled if the reference implementation, parseWithRegex(), is
+	 * 	actually used.
+	 */
+	private static class ReferencePatterns {
+		static final Pattern p = Pattern.compile(regex);
+		static final Pattern p_exp = Pattern.compile(regex_extended);
+	}
+	
+	/*
+	 * Instances have no state at all, so a single one may be shared by any
+	 * 	number of threads.  Whether a time was basic or extended comes back
+	 * 	in an Iso8601ParseResult.
+	 */
+	public Iso8601TimeParser() {
+	}
+	
+	public Iso8601Time parse(String s) throws Iso8601TimeParseException {
+		return parse(s, 0, s.length());
+	}
+	
+	/**
+	 * Parses the time in buf[offset, offset+length) in place.
+	 * 
+	 * @param buf  The buffer containing the time
+	 * @param offset  Index of the first character of the time
+	 * @param length  Number of characters in the time
+	 * @return The parsed time
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601Time parse(char[] buf, int offset, int length) 
+			throws Iso8601TimeParseException {
+		Iso8601DateParser.checkRange(buf.length, offset, offset+length);
+		return parse(CharBuffer.wrap(buf), offset, offset+length);
+	}
+	
+	/**
+	 * Parses the time in the ASCII bytes buf[offset, offset+length) 
+	 * 	directly, without decoding them into a String.
+	 * 
+	 * @param buf  The buffer containing the time
+	 * @param offset  Index of the first byte of the time
+	 * @param length  Number of bytes in the time
+	 * @return The parsed time
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601Time parse(byte[] buf, int offset, int length) 
+			throws Iso8601TimeParseException {
+		return parse(new AsciiCharSequence(buf, offset, length), 0, length);
+	}
+	
+	/**
+	 * Parses the time in the ASCII bytes between the buffer's position
+	 * 	and its limit.  Works with heap and direct buffers alike, and 
+	 * 	does not change the buffer's position.
+	 * 
+	 * @param buf  The buffer containing the time
+	 * @return The parsed time
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601Time parse(ByteBuffer buf) throws Iso8601TimeParseException {
+		return parse(buf, false);
+	}
+	
+	/**
+	 * Parses the time in the ASCII bytes between the buffer's position
+	 * 	and its limit.
+	 * 
+	 * @param buf  The buffer containing the time
+	 * @param advance  If true, and the parse succeeds, the buffer's 
+	 * 			position is moved to its limit.  Otherwise the position is
+	 * 			left alone.
+	 * @return The parsed time
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601Time parse(ByteBuffer buf, boolean advance) 
+			throws Iso8601TimeParseException {
+		Iso8601Time result = parse(buf, buf.position(), buf.remaining());
+		if (advance) {
+			buf.position(buf.limit());
+		}
+		return result;
+	}
+	
+	/**
+	 * Parses the time in the ASCII bytes buf[index, index+length), using
+	 * 	absolute reads only, so the buffer's position is not changed.
+	 * 
+	 * @param buf  The buffer containing the time
+	 * @param index  Index of the first byte of the time
+	 * @param length  Number of bytes in the time
+	 * @return The parsed time
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601Time parse(ByteBuffer buf, int index, int length) 
+			throws Iso8601TimeParseException {
+		return parse(new AsciiCharSequence(buf, index, length), 0, length);
+	}
+	
+	/**
+	 * Parses the time in s[start, end) in place, without copying it out
+	 * 	into its own String.
+	 * 
+	 * @param s  The characters containing the time
+	 * @param start  Index of the first character of the time
+	 * @param end  Index just past the last character of the time
+	 * @return The parsed time
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601Time parse(CharSequence s, int start, int end) 
+			throws Iso8601TimeParseException {
+		return parse(s, start, end, new Iso8601ParseResult());
+	}
+	
+	/**
+	 * Parses the time in s[start, end) in place, and records in result
+	 * 	whether it was in basic or extended format.
+	 * 
+	 * @param s  The characters containing the time
+	 * @param start  Index of the first character of the time
+	 * @param end  Index just past the last character of the time
+	 * @param result  Receives the parsed fields and format flags
+	 * @return The parsed time
+	 * @throws Iso8601TimeParseException
+	 */
+	public Iso8601Time parse(CharSequence s, int start, int end, 
+			Iso8601ParseResult result) throws Iso8601TimeParseException {
+		Iso8601DateParser.checkRange(s.length(), start, end);
+		result.reset();
+		if (scan(s, start, end, result) >= 0) {
+			throw createException(s, start, end);
+		}
+		return toTime(result);
+	}
+	
+	/**
+	 * Parses the time in s without throwing.  See 
+	 * 	tryParse(CharSequence, int, int, Iso8601ParseResult).
+	 * 
+	 * @param s  The time
+	 * @param result  Receives the format flags, or the error code and index
+	 * @return The parsed time, or null if s is not a legal time
+	 */
+	public Iso8601Time tryParse(String s, Iso8601ParseResult result) {
+		return tryParse(s, 0, s.length(), result);
+	}
+	
+	/**
+	 * Parses the time in s[start, end) without throwing, for input in 
+	 * 	which bad times are routine.  Instead of an exception, null is 
+	 * 	returned, and result.getErrorCode() (TIME_FORMAT) and 
+	 * 	result.getErrorIndex() say what was wrong and where.
+	 * 
+	 * @param s  The characters containing the time
+	 * @param start  Index of the first character of the time
+	 * @param end  Index just past the last character of the time
+	 * @param result  Receives the format flags, or the error code and index
+	 * @return The parsed time, or null if s[start, end) is not a legal time
+	 */
+	public Iso8601Time tryParse(CharSequence s, int start, int end, 
+			Iso8601ParseResult result) {
+		Iso8601DateParser.checkRange(s.length(), start, end);
+		result.reset();
+		int i = scan(s, start, end, result);
+		if (i >= 0) {
+			result.fail(Iso8601ParseResult.TIME_FORMAT, i);
+			return null;
+		}
+		return toTime(result);
+	}
+	
+	/*
+	 * Deterministic, character-level state machine equivalent to regex and
+	 * 	regex_extended above.  It visits each character of s[start, end)
+	 * 	once, in order:
+	 * 
+	 * 		[T] hh [[:]mm [[:]ss]] [[.,]f+] [Z | [+-]hh [[:]mm]]
+	 * 
+	 * 	where hh may also be 24, provided that the minute and second (if 
+	 * 	present) are 00 and the fraction (if present) is all zeros.
+	 * 
+	 * Whether the time is basic or extended is decided by the first place
+	 * 	at which a ':' could appear; from then on every separator must
+	 * 	agree.  Each component goes straight into r as a primitive, so no
+	 * 	Matcher, group Strings, or BigDecimal are created.
+	 * 
+	 * Returns -1 on success, otherwise the index of the character at which
+	 * 	the text stopped being a legal time.
+	 */
+	int scan(CharSequence s, int start, int end, Iso8601ParseResult r) {
+		int i = start;
+		if (i < end && s.charAt(i) == 'T') {
+			i++;
+		}
+		
+		/*
+		 * 0 = not yet known, 1 = basic, 2 = extended
+		 */
+		int format = 0;
+		
+		int hr = twoDigits(s, i, end);
+		if (hr < 0 || hr > 24) {
+			return i;
+		}
+		i += 2;
+		boolean is24 = (hr == 24);
+		
+		int mi = -1;
+		int se = -1;
+		if (i < end && (s.charAt(i) == ':' || isDigit(s.charAt(i)))) {
+			format = separatorFormat(s.charAt(i), format);
+			if (format == FORMAT_EXTENDED) i++;
+			mi = twoDigits(s, i, end);
+			if (mi < 0 || mi > 59 || (is24 && mi != 0)) {
+				return i;
+			}
+			i += 2;
+			if (i < end && (s.charAt(i) == ':' || isDigit(s.charAt(i)))) {
+				if (separatorFormat(s.charAt(i), format) != format) {
+					return i;
+				}
+				if (format == FORMAT_EXTENDED) i++;
+				se = twoDigits(s, i, end);
+				if (se < 0 || se > 59 || (is24 && se != 0)) {
+					return i;
+				}
+				i += 2;
+			}
+		}
+		
+		if (i < end && (s.charAt(i) == '.' || s.charAt(i) == ',')) {
+			i++;
+			int frStart = i;
+			long fr = 0;
+			while (i < end && isDigit(s.charAt(i))) {
+				int d = s.charAt(i) - '0';
+				if (is24 && d != 0) {
+					return i;
+				}
+				if (i - frStart < Iso8601ParseResult.MAX_FRACTION_DIGITS) {
+					fr = fr*10 + d;
+				}
+				i++;
+			}
+			if (i == frStart) {
+				return i;
+			}
+			r.fraction = fr;
+			r.fractionDigits = i - frStart;
+			r.text = s;
+			r.fractionStart = frStart;
+			r.fractionEnd = i;
+		}
+		
+		boolean isUtc = false;
+		int tzHr = 0;
+		int tzMi = -1;
+		if (i < end) {
+			char c = s.charAt(i);
+			if (c == 'Z') {
+				isUtc = true;
+				i++;
+			} else if (c == '+' || c == '-') {
+				i++;
+				tzHr = twoDigits(s, i, end);
+				if (tzHr < 1 || tzHr > 12) {
+					return i;
+				}
+				i += 2;
+				if (c == '-') {
+					tzHr = -tzHr;
+				}
+				if (i < end) {
+					int tzFormat = separatorFormat(s.charAt(i), format);
+					if (format != 0 && tzFormat != format) {
+						return i;
+					}
+					format = tzFormat;
+					if (format == FORMAT_EXTENDED) i++;
+					tzMi = twoDigits(s, i, end);
+					if (tzMi < 0 || tzMi > 59) {
+						return i;
+					}
+					i += 2;
+				}
+			} else {
+				return i;
+			}
+		}
+		if (i != end) {
+			return i;
+		}
+		
+		r.hasTime = true;
+		r.hour = hr;
+		r.minute = mi;
+		r.second = se;
+		r.isUtc = isUtc;
+		r.tzHour = tzHr;
+		r.tzMinute = tzMi;
+		r.extended = (format == FORMAT_EXTENDED);
+		/*
+		 * If the time string has just hour or just hour and timezone 
+		 *  hour offset, then it's consistent with extended, because
+		 *  it has no need for : delimiter.
+		 */
+		r.extendedConsistent = r.extended || (mi < 0 && tzMi < 0);
+		return -1;
+	}
+	
+	/*
+	 * Builds the time object from what scan() found.
+	 */
+	Iso8601Time toTime(Iso8601ParseResult r) {
+		IsoTimeBuilder tb;
+		boolean isUnit = (r.fractionStart < 0 || r.second >= 0);
+		if (isUnit) {
+			IsoUnitTimeBuilder utb = new IsoUnitTimeBuilder(r.hour);
+			if (r.second >= 0) {
+				utb.setSecond(r.second);
+			}
+			if (r.fractionStart >= 0) {
+				setSubsecondAndUnit(utb, r);
+			}
+			tb = utb;
+		} else {
+			IsoFractionalTimeBuilder ftb = new IsoFractionalTimeBuilder(r.hour);
+			ftb.setFraction(fraction(r));
+			tb = ftb;
+		}
+		
+		if (r.minute >= 0) {
+			tb.setMinute(r.minute);
+		}
+		
+		if (r.isUtc) {
+			tb.setIsUtc(true);
+		} else if (r.tzHour != 0) {
+			tb.setTimeZoneOffsetHour(r.tzHour);
+			if (r.tzMinute >= 0) {
+				tb.setTimeZoneOffsetMinute(r.tzMinute);
+			}
+		}
+		
+		if (isUnit) {
+			return new Iso8601UnitTime((IsoUnitTimeBuilder)tb);
+		} else {
+			return new Iso8601FractionalTime((IsoFractionalTimeBuilder)tb);
+		}
+	}
+	
+	/*
+	 * A ':' where a separator may appear means extended format, anything 
+	 * 	else means basic.  Returns 0 (a mismatch with either) if the 
+	 * 	separator contradicts the format already established.
+	 */
+	private static int separatorFormat(char c, int format) {
+		int f = (c == ':') ? FORMAT_EXTENDED : FORMAT_BASIC;
+		return (format == 0 || format == f) ? f : 0;
+	}
+	
+	private static boolean isDigit(char c) {
+		return (c >= '0' && c <= '9');
+	}
+	
+	/*
+	 * Returns the two-digit number at s[i, i+2), or -1 if there aren't two
+	 * 	digits there.
+	 */
+	static int twoDigits(CharSequence s, int i, int end) {
+		if (i+2 > end) {
+			return -1;
+		}
+		int d1 = s.charAt(i) - '0';
+		int d2 = s.charAt(i+1) - '0';
+		if (d1 < 0 || d1 > 9 || d2 < 0 || d2 > 9) {
+			return -1;
+		}
+		return d1*10 + d2;
+	}
+	
+	static final double[] POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 
+		1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+	
+	/*
+	 * Both the digits and the power of ten are exactly representable as 
+	 * 	doubles for up to 15 digits, so a single division gives the same
+	 * 	correctly rounded result as Double.parseDouble().
+	 */
+	static double fraction(Iso8601ParseResult r) {
+		if (r.fractionDigits >= POW10.length) {
+			return Double.parseDouble("." + r.text.subSequence(
+					r.fractionStart, r.fractionEnd).toString());
+		}
+		return r.fraction / POW10[r.fractionDigits];
+	}
+	
+	static final long[] LONG_POW10 = { 1L, 10L, 100L, 1000L, 10000L, 
+		100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 
+		10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 
+		100000000000000L, 1000000000000000L, 10000000000000000L, 
+		100000000000000000L, 1000000000000000000L };
+	
+	/*
+	 * The first n digits of the fraction, as an integer, padded with zeros
+	 * 	if there were fewer than n (so for n = 9 and ".5", 500000000).
+	 * 	Digits beyond n are truncated.  n must be at most 
+	 * 	MAX_FRACTION_DIGITS.
+	 */
+	static long fractionDigits(Iso8601ParseResult r, int n) {
+		int kept = Math.min(r.fractionDigits, 
+				Iso8601ParseResult.MAX_FRACTION_DIGITS);
+		if (kept >= n) {
+			return r.fraction / LONG_POW10[kept - n];
+		}
+		return r.fraction * LONG_POW10[n - kept];
+	}
+	
+	static Iso8601TimeParseException createException(CharSequence s, 
+			int start, int end) {
+		return new Iso8601TimeParseException("Illegal 8601 time: " + 
+				s.subSequence(start, end).toString(),
+				Iso8601ParseResult.STACK_TRACES);
+	}
+	
+	/*
+	 * Fractions with more than nine digits are truncated to nanoseconds,
+	 * 	the finest TimePrecision.
+	 */
+	protected void setSubsecondAndUnit(IsoUnitTimeBuilder tb, 
+			Iso8601ParseResult r) {
+		int precision = Math.min(r.fractionDigits, TimePrecision.NANOSECOND);
+		tb.setSubsecond((int)fractionDigits(r, precision));
+		tb.setPrecision((byte)precision);
+	}
+	
+	/*
+	 * The original, regular-expression-based parser.  It is no longer used
+	 * 	for parsing, but is kept as the reference implementation that the
+	 * 	state machine in parse() is tested against.
+	 */
+	Iso8601Time parseWithRegex(String s, Iso8601ParseResult result) 
+			throws Iso8601TimeParseException {
+		Iso8601Time t = null;
+		boolean isExtended = s.contains(":");
+		Matcher m = (isExtended) ? ReferencePatterns.p_exp.matcher(s) : 
+				ReferencePatterns.p.matcher(s);
+		if (m.matches()) {
+			/*
+			 * Group 3 is hour
+			 * Group 5 is minute
+			 * Group 7 is second
+			 * Group 8 is fraction
+			 * 
+			 * If time is 24:00 or 24:00:00
+			 * 		Group 10 is hour
+			 * 		Group 11 is minute
+			 * 		Group 13 is second
+			 * 
+			 * Group 14 is "Z" if UTC
+			 * Group 15 is + or -
+			 * Group 16 is time zone hour
+			 * Group 18 is time zone minute
+			 * 
+			 */
+			int hr_group, mi_group, se_group, fr_group;
+			if (m.group(HOUR_GROUP) != null) {
+				hr_group = HOUR_GROUP;
+				mi_group = MIN_GROUP;
+				se_group = SEC_GROUP;
+				fr_group = FR_GROUP;
+			} else {
+				hr_group = HR24_GROUP;
+				mi_group = MI24_GROUP;
+				se_group = SE24_GROUP;
+				fr_group = FR24_GROUP;
+			}
+			String frTxt = m.group(fr_group);
+			frTxt = (frTxt == null) ? null : frTxt.replace(',', '.');
+			String seTxt = m.group(se_group);
+			boolean isUnit = (frTxt == null) || 
+								(frTxt != null && seTxt != null);
+			int hr = Integer.parseInt(m.group(hr_group));
+			String miTxt = m.group(mi_group);
+			
+			IsoTimeBuilder tb;
+			if (isUnit) {
+				tb = new IsoUnitTimeBuilder(hr);
+				if (seTxt != null) {
+					((IsoUnitTimeBuilder)tb).setSecond(
+							Integer.parseInt(seTxt));
+				}
+				if (frTxt != null) {
+					setSubsecondAndUnit((IsoUnitTimeBuilder)tb, frTxt);
+				}
+			} else {
+				tb = new IsoFractionalTimeBuilder(hr);
+				((IsoFractionalTimeBuilder)tb).setFraction(
+						Double.parseDouble(frTxt));
+			}
+
+			if (miTxt != null) {
+				tb.setMinute(Integer.parseInt(m.group(mi_group)));
+			}
+
+			if (m.group(Z_GROUP) != null && m.group(Z_GROUP).equals("Z")) {
+				tb.setIsUtc(true);
+			} else if (m.group(TZHR_GROUP) != null) {
+				int tzHr = Integer.parseInt(m.group(TZHR_GROUP));
+				if (m.group(TZSIGN_GROUP).equals("-")) {
+					tzHr = -tzHr;
+				}
+				tb.setTimeZoneOffsetHour(tzHr);
+				if (m.group(TZMI_GROUP) != null) {
+					tb.setTimeZoneOffsetMinute(
+							Integer.parseInt(m.group(TZMI_GROUP)));
+				}
+			}
+			/*
+			 * If the time string has just hour or just hour and timezone 
+			 *  hour offset, then it's consistent with extended, because
+			 *  it has no need for : delimiter.
+			 */
+			result.extended = isExtended;
+			result.extendedConsistent = isExtended || 
+				(tb.min == null && m.group(TZMI_GROUP) == null);
+			if (isUnit) {
+				t = new Iso8601UnitTime((IsoUnitTimeBuilder)tb);
+			} else {
+				t = new Iso8601FractionalTime((IsoFractionalTimeBuilder)tb);
+			}
+		} else {
+			throw new Iso8601TimeParseException("Illegal 8601 time: " + s);
+		}
+		
+		return t;
+	}
+	
+	protected void setSubsecondAndUnit(IsoUnitTimeBuilder tb, String frTxt) {
+		String frDotTxt = frTxt.replace(',', '.');
+		BigDecimal bd = new BigDecimal(frDotTxt);
+		if (bd.scale() > TimePrecision.NANOSECOND) {
+			bd = bd.setScale(TimePrecision.NANOSECOND, RoundingMode.DOWN);
+		}
+		tb.setSubsecond(bd.unscaledValue().intValue());
+		tb.setPrecision((byte)bd.scale());
+	}
+}
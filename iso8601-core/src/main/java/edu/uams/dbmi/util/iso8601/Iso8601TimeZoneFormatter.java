@@ -0,0 +1,169 @@
+package edu.uams.dbmi.util.iso8601;
+
+import java.io.IOException;
+
+public class Iso8601TimeZoneFormatter {
+	
+	public static class FormatOptions implements Cloneable {
+		final boolean extended;
+		final boolean includeMinutesIfZero;
+
+		public FormatOptions(boolean extended, boolean includeMinutesIfZero) {
+			this.extended = extended;
+			this.includeMinutesIfZero = includeMinutesIfZero;
+		}
+		
+	}
+
+		public static String formatTimeZone(int hourOffset, int minuteOffset) {
+			FormatOptions fo = new FormatOptions(true, true);
+			return formatTimeZone(hourOffset, minuteOffset, fo);
+		}
+		
+		public static String formatTimeZone(int hourOffset, int minuteOffset, FormatOptions fo) {
+			int i = gridIndex(hourOffset, minuteOffset);
+			if (i >= 0) {
+				return OFFSETS[options(fo.extended, fo.includeMinutesIfZero)][i];
+			}
+			checkOffset(hourOffset, minuteOffset);
+			StringBuilder sb = new StringBuilder();
+			try {
+				writeOffset(sb, 0, hourOffset < 0, Math.abs(hourOffset), 
+						minuteOffset, fo.extended, fo.includeMinutesIfZero);
+			} catch (IOException e) {
+				throw new AssertionError(e);
+			}
+			return sb.toString();
+		}
+		
+		/*
+		 * Writes the offset to a FormatSink at pos, and returns the position
+		 * 	after it.  Throws an IllegalArgumentException, before writing 
+		 * 	anything, if the offset is out of range.
+		 */
+		static int writeTimeZone(Object sink, int pos, int hourOffset, 
+				int minuteOffset, boolean extended, 
+				boolean includeMinutesIfZero) throws IOException {
+			int i = gridIndex(hourOffset, minuteOffset);
+			if (i >= 0) {
+				return FormatSink.put(sink, pos, 
+						OFFSET_CHARS[options(extended, includeMinutesIfZero)][i]);
+			}
+			checkOffset(hourOffset, minuteOffset);
+			return writeOffset(sink, pos, hourOffset < 0, 
+					Math.abs(hourOffset), minuteOffset, extended, 
+					includeMinutesIfZero);
+		}
+		
+		private static void checkOffset(int hourOffset, int minuteOffset) {
+			if (hourOffset < -24 || hourOffset > 24) {
+				throw new IllegalArgumentException("hour offset must be between -24 and 24 [" + hourOffset + "]");
+			}
+			/*
+			 * really, it's only ever 0, 30, and 45.  But if we're going to enforce that somewhere, the best place
+			 *  is elsewhere.
+			 */
+			if (minuteOffset < 0 || minuteOffset > 59) {
+				throw new IllegalArgumentException("minute offset must be between 0 and 59 [" + minuteOffset + "]");
+			}
+		}
+		
+		/*
+		 * Every offset from -12:00 to +14:00 in 15-minute steps (the same 
+		 * 	grid as FixedOffsetTimeZones), already formatted for each of the
+		 * 	four combinations of options, so the offsets that really occur 
+		 * 	are formatted by an array lookup: formatTimeZone() returns the 
+		 * 	String, and writeTimeZone() copies the char[].  Both are built 
+		 * 	once, when the class is loaded, and never change.
+		 * 
+		 * They are built by hand rather than with writeOffset(), so that 
+		 * 	building them does not teach the JIT that FormatSink is given 
+		 * 	StringBuilders.
+		 */
+		private static final int GRID_SIZE = 
+				(FixedOffsetTimeZones.MAX_OFFSET_MINUTES - 
+						FixedOffsetTimeZones.MIN_OFFSET_MINUTES)/
+				FixedOffsetTimeZones.STEP_MINUTES + 1;
+		private static final String[][] OFFSETS = new String[4][GRID_SIZE];
+		private static final char[][][] OFFSET_CHARS = 
+				new char[4][GRID_SIZE][];
+		
+		static {
+			for (int o=0; o<OFFSETS.length; o++) {
+				boolean extended = (o & 2) != 0;
+				boolean includeMinutesIfZero = (o & 1) != 0;
+				for (int i=0; i<OFFSETS[o].length; i++) {
+					int offset = FixedOffsetTimeZones.MIN_OFFSET_MINUTES + 
+							i*FixedOffsetTimeZones.STEP_MINUTES;
+					int abs = Math.abs(offset);
+					StringBuilder sb = new StringBuilder(6);
+					sb.append((offset < 0) ? '-' : '+');
+					sb.append((char)('0' + abs/600));
+					sb.append((char)('0' + abs/60%10));
+					if (includeMinutesIfZero || abs%60 != 0) {
+						if (extended) {
+							sb.append(':');
+						}
+						sb.append((char)('0' + abs%60/10));
+						sb.append((char)('0' + abs%10));
+					}
+					OFFSETS[o][i] = sb.toString();
+					OFFSET_CHARS[o][i] = OFFSETS[o][i].toCharArray();
+				}
+			}
+		}
+		
+		/*
+		 * The index of the offset in OFFSETS, or -1 if it is not on the grid.
+		 * 	The minute offset takes the sign of the hour offset.  A minute 
+		 * 	offset outside 0 to 59 is never on the grid (e.g., 5 and -15 
+		 * 	would otherwise be +04:45), and with the minutes in range, an 
+		 * 	offset on the grid has an hour from -12 to 14, so it is legal.  
+		 * 	Only offsets off the grid need checkOffset().
+		 */
+		private static int gridIndex(int hourOffset, int minuteOffset) {
+			if (minuteOffset < 0 || minuteOffset > 59) {
+				return -1;
+			}
+			int offset = hourOffset*60 + 
+					((hourOffset < 0) ? -minuteOffset : minuteOffset);
+			int fromMin = offset - FixedOffsetTimeZones.MIN_OFFSET_MINUTES;
+			if (fromMin >= 0 && 
+					offset <= FixedOffsetTimeZones.MAX_OFFSET_MINUTES && 
+					fromMin % FixedOffsetTimeZones.STEP_MINUTES == 0) {
+				return fromMin/FixedOffsetTimeZones.STEP_MINUTES;
+			}
+			return -1;
+		}
+		
+		private static int options(boolean extended, 
+				boolean includeMinutesIfZero) {
+			return ((extended) ? 2 : 0) + ((includeMinutesIfZero) ? 1 : 0);
+		}
+		
+		private static int writeOffset(Object sink, int pos, boolean negative,
+				int hourOffset, int minuteOffset, boolean extended, 
+				boolean includeMinutesIfZero) throws IOException {
+			pos = FormatSink.put(sink, pos, (negative) ? '-' : '+');
+			pos = FormatSink.put2(sink, pos, hourOffset);
+		
+			if (includeMinutesIfZero || minuteOffset != 0) {
+				//only include colon if we're using extended format
+				if (extended) {
+					pos = FormatSink.put(sink, pos, ':');
+				}
+				pos = FormatSink.put2(sink, pos, minuteOffset);
+			}
+			
+			return pos;
+		}
+		
+		public static String formatTimeZone(int offsetInMillis) {
+			long offsetHour = offsetInMillis / 3600000L;
+			long offsetMinutes = (offsetInMillis % 3600000L) / 60000L;
+			if (offsetMinutes < 0) offsetMinutes = -offsetMinutes;
+			return formatTimeZone((int)offsetHour, (int)offsetMinutes);
+		}
+	
+	
+}
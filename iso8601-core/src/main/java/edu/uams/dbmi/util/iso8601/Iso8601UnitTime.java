@@ -0,0 +1,227 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+public class Iso8601UnitTime extends Iso8601Time {
+
+	final byte se;
+	
+	/*
+	 * A TimePrecision code.  (The iso8601-jscience module's 
+	 * 	TimeUnit.forPrecision() turns it into a JScience unit.)
+	 */
+	final byte precision;
+	final int subSecond;
+	
+	public Iso8601UnitTime(long tmillis) {
+		super(tmillis);
+		this. se = checkedSecond((int)((tmillis % 60000L)/1000L));
+		this. precision = TimePrecision.MILLISECOND;
+		this. subSecond = checkedSubsecond(precision, (int)(tmillis%1000L));
+	}
+	
+	public Iso8601UnitTime(int hr) {
+		super(hr);
+		this. se = ABSENT;
+		this. precision = TimePrecision.HOUR;
+		this. subSecond = 0;
+	}
+	
+	public Iso8601UnitTime(int hr, int min) {
+		super(hr, min);
+		this. se = ABSENT;
+		this. precision = TimePrecision.MINUTE;
+		this. subSecond = 0;
+	}
+	
+	public Iso8601UnitTime(int hr, int min, int sec) {
+		super(hr, min);
+		this. se = checkedSecond(sec);
+		this. precision = TimePrecision.SECOND;
+		this. subSecond = 0;
+	}
+	
+	/**
+	 * 
+	 * @param hr The hour
+	 * @param min The minute
+	 * @param sec The second
+	 * @param precision A TimePrecision code from SECOND to NANOSECOND
+	 * @param subsec The number of 10^-precision seconds past the second
+	 */
+	public Iso8601UnitTime(int hr, int min, int sec, byte precision, 
+			int subsec) {
+		super(hr, min);
+		this. se = checkedSecond(sec);
+		this. precision = precision;
+		this. subSecond = checkedSubsecond(precision, subsec);
+	}
+	
+	public Iso8601UnitTime(IsoUnitTimeBuilder b) {
+		super(b);
+		if (b.hasPrecision()) {
+			this. precision = b.getPrecision();
+			this. subSecond = checkedSubsecond(precision, b.getSubsecond());
+			this. se = (b.se != null) ? checkedSecond(b.se) : ABSENT;
+		} else {
+			this. subSecond = 0;
+			if (b.se != null) {
+				this. precision = TimePrecision.SECOND;
+				this. se = checkedSecond(b.se);
+			} else if (b.min != null) {
+				this. precision = TimePrecision.MINUTE;
+				this. se = ABSENT;
+			} else {
+				this. precision = TimePrecision.HOUR;
+				this. se = ABSENT;
+			}
+		}
+	}
+	
+	/*
+	 * A second that fails checkSecond() is quietly left out, as it always
+	 * 	has been.
+	 */
+	private byte checkedSecond(int sec) {
+		return (checkSecond(sec)) ? (byte)sec : ABSENT;
+	}
+	
+	protected boolean checkSecond(int sec) {
+		/* 
+		 * this.mi is already set, since we can't set the second before 
+		 * 	the minute, as we call superclass constructor first in all
+		 * 	cases.
+		 */
+		return ((sec > -1 && sec < 60) || 
+			(sec > -1 && sec == 60 && this.hr == 23 && this.mi == 59));
+	}
+	
+	/*
+	 * A subsecond counts 10^-precision seconds, so it must be less than 
+	 * 	10^precision.  Whole seconds ignore it, as they always have.
+	 */
+	private static int checkedSubsecond(byte precision, int subSec) {
+		if (precision == TimePrecision.SECOND) {
+			return 0;
+		}
+		if (precision < TimePrecision.HOUR || 
+				precision > TimePrecision.NANOSECOND) {
+			throw new IllegalArgumentException("Not a TimePrecision code: " + 
+					precision);
+		}
+		long limit = (precision < TimePrecision.SECOND) ? 1L : 
+				Iso8601TimeParser.LONG_POW10[precision];
+		if (subSec >= 0 && subSec < limit) { 
+			return subSec;
+		} else {
+			throw new IllegalArgumentException("Units and value must " +
+					"combine for < 1 second.");
+		}
+	}
+	
+	@Override
+	Iso8601Time withHour(int hour) {
+		IsoUnitTimeBuilder b = new IsoUnitTimeBuilder(hour);
+		if (mi != ABSENT) {
+			b.setMinute(mi);
+		}
+		if (se != ABSENT) {
+			b.setSecond(se);
+		}
+		b.setPrecision(precision);
+		b.setSubsecond(subSecond);
+		copyTimeZone(b);
+		return new Iso8601UnitTime(b);
+	}
+	
+	/**
+	 * 
+	 * @return true if the time has a second
+	 */
+	public boolean hasSecond() {
+		return se != ABSENT;
+	}
+	
+	/**
+	 * 
+	 * @return The second, or null if the time has none (see hasSecond())
+	 */
+	public Integer getSecond() {
+		return (se != ABSENT) ? Integer.valueOf(se) : null;
+	}
+	
+	public Integer getSubsecond() {
+		return subSecond;
+	}
+	
+	/**
+	 * 
+	 * @return The TimePrecision code of the time
+	 */
+	public byte getPrecision() {
+		return precision;
+	}
+
+	@Override
+	long nanoOfDay() {
+		long n = hr*EpochArithmetic.NANOS_PER_HOUR;
+		if (mi != ABSENT) {
+			n += mi*EpochArithmetic.NANOS_PER_MINUTE;
+		}
+		if (se != ABSENT) {
+			n += se*EpochArithmetic.NANOS_PER_SECOND;
+		}
+		if (precision > TimePrecision.SECOND) {
+			n += subSecond*Iso8601TimeParser.LONG_POW10[
+			        TimePrecision.NANOSECOND - precision];
+		}
+		return n;
+	}
+	
+	@Override
+	byte precision() {
+		return precision;
+	}
+	
+	@Override
+	int compareSameClass(Iso8601Time t) {
+		Iso8601UnitTime u = (Iso8601UnitTime)t;
+		int c = Integer.compare(se, u.se);
+		return (c != 0) ? c : Integer.compare(subSecond, u.subSecond);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		boolean eq = false;
+		if (o instanceof Iso8601UnitTime) {
+			Iso8601UnitTime t = (Iso8601UnitTime)o;
+			eq = (hr == t.hr && mi == t.mi && tzHr == t.tzHr
+					&& tzMin == t.tzMin && se == t.se &&
+					precision == t.precision && subSecond == t.subSecond);
+		}
+		return eq;
+	}
+	
+	@Override
+	public int hashCode() {
+		int h = hr;
+		h = 31*h + mi;
+		h = 31*h + se;
+		h = 31*h + subSecond;
+		h = 31*h + tzHr;
+		h = 31*h + tzMin;
+		return 31*h + precision;
+	}
+}
@@ -14,15 +14,18 @@
   */
 package edu.uams.dbmi.util.iso8601;
 
-import javax.measure.quantity.Duration;
-import javax.measure.unit.Unit;
-
 public class IsoUnitTimeBuilder extends IsoTimeBuilder {
 
 	Integer se;
-	Unit<Duration> u;
+	/*
+	 * A TimePrecision code, or NO_PRECISION until setPrecision() is 
+	 * 	called.
+	 */
+	byte precision = NO_PRECISION;
 	int subSecond;
 	
+	static final byte NO_PRECISION = Byte.MIN_VALUE;
+	
 	public IsoUnitTimeBuilder(int hr) {
 		super(hr);
 	}
@@ -35,12 +38,20 @@ public class IsoUnitTimeBuilder extends IsoTimeBuilder {
 		return se;
 	}
 
-	public void setUnit(Unit<Duration> u) {
-		this.u = u;
+	/**
+	 * 
+	 * @param precision A TimePrecision code
+	 */
+	public void setPrecision(byte precision) {
+		this.precision = precision;
+	}
+	
+	public byte getPrecision() {
+		return precision;
 	}
 	
-	public Unit<Duration> getUnit() {
-		return u;
+	public boolean hasPrecision() {
+		return precision != NO_PRECISION;
 	}
 	
 	public void setSubsecond(int subsecond) {
@@ -0,0 +1,316 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+/**
+ * Static methods for storing an Iso8601Date in a single long, so that dates
+ * 	of any precision (century, year, month, week, or day) can be kept in 
+ * 	primitive arrays or off-heap memory without losing the 
+ * 	DateConfiguration.
+ * 
+ * The long holds the fields the date was configured with, in the same
+ * 	layout the Iso8601DateParser uses internally:
+ * 
+ * 	bits  0- 6	day of month or day of week (0 if none)
+ * 	bits  7-16	month, week of year, or day of year (0 if none)
+ * 	bits 17-19	ordinal of the DateConfiguration
+ * 	bit  20		always 0
+ * 	bits 21-63	signed year (or century, for CENTURY; or week calendar
+ * 				year, for YEAR_WEEK and YEAR_WEEK_DAY)
+ * 
+ * The accessors work on the long directly and never create an object.  
+ * 	They return the same values, and throw the same 
+ * 	IllegalStateExceptions, as the Iso8601Date methods of the same name.  
+ * 	The result of calling them on a long that did not come from pack() is
+ * 	undefined unless isValid() returns true for it.  Use toDate() to get
+ * 	the Iso8601Date back.
+ * 
+ * @author williamhogan
+ *
+ */
+public final class PackedIso8601Date {
+	private static final int CENTURY = DateConfiguration.CENTURY.ordinal();
+	private static final int YEAR = DateConfiguration.YEAR.ordinal();
+	private static final int YEAR_MONTH = 
+			DateConfiguration.YEAR_MONTH.ordinal();
+	private static final int YEAR_MONTH_DAY = 
+			DateConfiguration.YEAR_MONTH_DAY.ordinal();
+	private static final int YEAR_WEEK = DateConfiguration.YEAR_WEEK.ordinal();
+	private static final int YEAR_WEEK_DAY = 
+			DateConfiguration.YEAR_WEEK_DAY.ordinal();
+	private static final int YEAR_DAY_OF_YEAR = 
+			DateConfiguration.YEAR_DAY_OF_YEAR.ordinal();
+	
+	private PackedIso8601Date() {
+	}
+	
+	/**
+	 * 
+	 * @param d The date to pack
+	 * @return The long that represents the date
+	 */
+	public static long pack(Iso8601Date d) {
+		DateConfiguration config = d.configuration;
+		switch (config) {
+			case CENTURY:
+				return Iso8601DateParser.pack(config, d.getCentury(), 0, 0, 
+						false);
+			case YEAR:
+				return Iso8601DateParser.pack(config, d.getYear(), 0, 0, false);
+			case YEAR_MONTH:
+				return Iso8601DateParser.pack(config, d.getYear(), 
+						d.getMonth(), 0, false);
+			case YEAR_MONTH_DAY:
+				return Iso8601DateParser.pack(config, d.getYear(), 
+						d.getMonth(), d.getDayOfMonth(), false);
+			case YEAR_WEEK:
+				return Iso8601DateParser.pack(config, d.getWeekCalendarYear(), 
+						d.getWeekOfYear(), 0, false);
+			case YEAR_WEEK_DAY:
+				return Iso8601DateParser.pack(config, d.getWeekCalendarYear(), 
+						d.getWeekOfYear(), d.getDayOfWeek(), false);
+			default:
+				return Iso8601DateParser.pack(config, d.getYear(), 
+						d.getDayOfYear(), 0, false);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param packed A long returned by pack()
+	 * @return A new Iso8601Date equal to the one that was packed
+	 * @throws IllegalArgumentException if the long does not represent a 
+	 * 			date (see isValid())
+	 */
+	public static Iso8601Date toDate(long packed) {
+		checkConfiguration(packed);
+		return Iso8601DateParser.toDate(packed);
+	}
+	
+	/**
+	 * 
+	 * @param packed Any long
+	 * @return true if the long represents an ISO 8601 date, i.e., if 
+	 * 			toDate() will succeed for it.
+	 */
+	public static boolean isValid(long packed) {
+		return Iso8601DateParser.getConfigurationCode(packed) != 
+					Iso8601DateParser.CONFIG_ERROR &&
+				!Iso8601DateParser.isExtended(packed) &&
+				(packed >> Iso8601DateParser.YEAR_SHIFT) == 
+					Iso8601DateParser.getYear(packed) &&
+				Iso8601DateParser.isValid(packed);
+	}
+	
+	public static DateConfiguration getConfiguration(long packed) {
+		checkConfiguration(packed);
+		return Iso8601DateParser.CONFIGURATIONS[
+				Iso8601DateParser.getConfigurationCode(packed)];
+	}
+	
+	public static boolean isDay(long packed) {
+		return Iso8601DateParser.isDay(packed);
+	}
+	
+	public static boolean isWeek(long packed) {
+		return Iso8601DateParser.getConfigurationCode(packed) == YEAR_WEEK;
+	}
+	
+	public static boolean isMonth(long packed) {
+		return Iso8601DateParser.getConfigurationCode(packed) == YEAR_MONTH;
+	}
+	
+	public static boolean isYear(long packed) {
+		return Iso8601DateParser.getConfigurationCode(packed) == YEAR;
+	}
+	
+	public static boolean isCentury(long packed) {
+		return Iso8601DateParser.getConfigurationCode(packed) == CENTURY;
+	}
+	
+	public static int getCentury(long packed) {
+		if (isCentury(packed)) {
+			return Iso8601DateParser.getYear(packed);
+		}
+		return getYear(packed)/100;
+	}
+	
+	/**
+	 * Like Iso8601Date.getYear(), for weeks and days configured by week this
+	 * 	is the calendar year of the first day of the interval, which for 
+	 * 	week 1 might be the previous year.
+	 * 
+	 * @param packed A long returned by pack()
+	 * @return The year
+	 */
+	public static int getYear(long packed) {
+		int config = Iso8601DateParser.getConfigurationCode(packed);
+		if (config == CENTURY) {
+			throw new IllegalStateException("This Iso8601Date object " +
+					"represents an entire century and not a specific year.");
+		} else if (config == YEAR_WEEK || config == YEAR_WEEK_DAY) {
+			return (int)EpochArithmetic.yearOfEpochDay(
+					getIntervalStartEpochDay(packed));
+		}
+		return Iso8601DateParser.getYear(packed);
+	}
+	
+	public static int getWeekCalendarYear(long packed) {
+		int config = Iso8601DateParser.getConfigurationCode(packed);
+		if (config == CENTURY) {
+			throw new IllegalStateException("This Iso8601Date object " +
+					"represents an entire century and not a specific year.");
+		} else if (config == YEAR_WEEK || config == YEAR_WEEK_DAY) {
+			return Iso8601DateParser.getYear(packed);
+		} else if (isDay(packed)) {
+			return (int)EpochArithmetic.weekBasedYear(
+					getIntervalStartEpochDay(packed));
+		}
+		return 0;
+	}
+	
+	/**
+	 * 
+	 * @param packed A long returned by pack()
+	 * @return The month of the year, where Jan==1, Feb==2, ..., Dec==12
+	 */
+	public static int getMonth(long packed) {
+		int config = Iso8601DateParser.getConfigurationCode(packed);
+		if (config == CENTURY || config == YEAR) {
+			throw new IllegalStateException("This Iso8601Date object " +
+					"represents an interval longer than a month.");
+		} else if (config == YEAR_WEEK) {
+			throw new IllegalStateException("This Iso8601Date object " +
+					"represents a type of week that can span months and " +
+					"even the change from one year to another.");
+		} else if (config == YEAR_MONTH || config == YEAR_MONTH_DAY) {
+			return Iso8601DateParser.getField2(packed);
+		}
+		return EpochArithmetic.monthOfEpochDay(
+				getIntervalStartEpochDay(packed));
+	}
+	
+	public static int getWeekOfYear(long packed) {
+		int config = Iso8601DateParser.getConfigurationCode(packed);
+		if (config == YEAR_WEEK || config == YEAR_WEEK_DAY) {
+			return Iso8601DateParser.getField2(packed);
+		} else if (!isDay(packed)) {
+			throw new IllegalStateException("This Iso8601Date object " +
+					"represents an interval longer than a week");
+		}
+		return EpochArithmetic.isoWeekOfYear(getIntervalStartEpochDay(packed));
+	}
+	
+	public static int getDayOfMonth(long packed) {
+		checkDay(packed);
+		if (Iso8601DateParser.getConfigurationCode(packed) == YEAR_MONTH_DAY) {
+			return Iso8601DateParser.getField3(packed);
+		}
+		return EpochArithmetic.dayOfMonthOfEpochDay(
+				getIntervalStartEpochDay(packed));
+	}
+	
+	/**
+	 * 
+	 * @param packed A long returned by pack()
+	 * @return The ISO 8601 day of the week (Mon==1, ..., Sun==7)
+	 */
+	public static int getDayOfWeek(long packed) {
+		checkDay(packed);
+		if (Iso8601DateParser.getConfigurationCode(packed) == YEAR_WEEK_DAY) {
+			return Iso8601DateParser.getField3(packed);
+		}
+		return EpochArithmetic.isoDayOfWeek(getIntervalStartEpochDay(packed));
+	}
+	
+	public static int getDayOfYear(long packed) {
+		checkDay(packed);
+		if (Iso8601DateParser.getConfigurationCode(packed) == 
+				YEAR_DAY_OF_YEAR) {
+			return Iso8601DateParser.getField2(packed);
+		}
+		return EpochArithmetic.dayOfYearOfEpochDay(
+				getIntervalStartEpochDay(packed));
+	}
+	
+	/**
+	 * 
+	 * @param packed A long returned by pack()
+	 * @return The number of days from 1970-01-01 to the day represented, or
+	 * 			to the first day of the interval represented, on the 
+	 * 			proleptic Gregorian calendar.
+	 */
+	public static long getIntervalStartEpochDay(long packed) {
+		int config = Iso8601DateParser.getConfigurationCode(packed);
+		long year = Iso8601DateParser.getYear(packed);
+		int field2 = Iso8601DateParser.getField2(packed);
+		int field3 = Iso8601DateParser.getField3(packed);
+		if (config == CENTURY) {
+			return EpochArithmetic.epochDay(year*100, 1, 1);
+		} else if (config == YEAR) {
+			return EpochArithmetic.epochDay(year, 1, 1);
+		} else if (config == YEAR_MONTH) {
+			return EpochArithmetic.epochDay(year, field2, 1);
+		} else if (config == YEAR_MONTH_DAY) {
+			return EpochArithmetic.epochDay(year, field2, field3);
+		} else if (config == YEAR_WEEK) {
+			return EpochArithmetic.epochDayOfWeekDay(year, field2, 1);
+		} else if (config == YEAR_WEEK_DAY) {
+			return EpochArithmetic.epochDayOfWeekDay(year, field2, field3);
+		}
+		return EpochArithmetic.epochDayOfYearDay(year, field2);
+	}
+	
+	/**
+	 * 
+	 * @param packed A long returned by pack()
+	 * @return The epoch day (see getIntervalStartEpochDay()) of the last day
+	 * 			of the interval represented, so for a day it is the same as
+	 * 			the start.
+	 */
+	public static long getIntervalEndEpochDay(long packed) {
+		int config = Iso8601DateParser.getConfigurationCode(packed);
+		long year = Iso8601DateParser.getYear(packed);
+		if (config == CENTURY) {
+			return EpochArithmetic.epochDay(year*100 + 100, 1, 1) - 1;
+		} else if (config == YEAR) {
+			return EpochArithmetic.epochDay(year + 1, 1, 1) - 1;
+		} else if (config == YEAR_MONTH) {
+			int month = Iso8601DateParser.getField2(packed);
+			return (month == 12) ? EpochArithmetic.epochDay(year + 1, 1, 1) - 1 :
+					EpochArithmetic.epochDay(year, month + 1, 1) - 1;
+		} else if (config == YEAR_WEEK) {
+			return getIntervalStartEpochDay(packed) + 6;
+		}
+		return getIntervalStartEpochDay(packed);
+	}
+	
+	private static void checkConfiguration(long packed) {
+		if (Iso8601DateParser.getConfigurationCode(packed) == 
+				Iso8601DateParser.CONFIG_ERROR) {
+			throw new IllegalArgumentException("Not a packed Iso8601Date (" + 
+					packed + ")");
+		}
+	}
+	
+	private static void checkDay(long packed) {
+		if (!isDay(packed)) {
+			throw new IllegalStateException("This Iso8601 object does not " +
+					"represent a day.");
+		}
+	}
+}
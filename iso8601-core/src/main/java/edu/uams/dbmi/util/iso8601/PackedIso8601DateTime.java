@@ -0,0 +1,325 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+/**
+ * Static methods for storing an Iso8601DateTime in two longs, so that large
+ * 	time series can be kept in long[] arrays instead of as objects.
+ * 
+ * The first long is the number of seconds from 1970-01-01T00:00:00Z.  The
+ * 	second holds everything else:
+ * 
+ * 	bits  0-29	nanosecond within the second
+ * 	bits 30-33	TimePrecision code, plus 2
+ * 	bit  34		set if the time zone was specified (otherwise UTC is 
+ * 				assumed, see Iso8601Time)
+ * 	bit  35		set if the time zone was specified as UTC (Z)
+ * 	bit  36		set for a fractional hour or minute (Iso8601FractionalTime)
+ * 	bit  37		set for a leap second (second 60), which is stored as 
+ * 				second 59
+ * 	bits 38-39	how the day was configured: 0 for YEAR_MONTH_DAY, 1 for
+ * 				YEAR_WEEK_DAY, 2 for YEAR_DAY_OF_YEAR
+ * 	bits 40-52	always 0
+ * 	bits 53-63	signed offset from UTC, in minutes
+ * 
+ * toDateTime() gives back a date/time equal to the one packed.  The one
+ * 	exception is a fractional hour or minute, which is kept to the 
+ * 	nanosecond, so its fraction comes back exactly only if it had no more
+ * 	than 11 (hour) or 10 (minute) decimal digits.
+ * 
+ * @author williamhogan
+ *
+ */
+public final class PackedIso8601DateTime {
+	static final int PRECISION_SHIFT = 30;
+	static final int TZ_SPECIFIED_SHIFT = 34;
+	static final int UTC_SHIFT = 35;
+	static final int FRACTIONAL_SHIFT = 36;
+	static final int LEAP_SECOND_SHIFT = 37;
+	static final int CONFIG_SHIFT = 38;
+	static final int OFFSET_SHIFT = 53;
+	
+	static final long NANO_MASK = 0x3fffffffL;
+	static final int PRECISION_MASK = 0xf;
+	static final int CONFIG_MASK = 0x3;
+	
+	private static final DateConfiguration[] CONFIGURATIONS = {
+		DateConfiguration.YEAR_MONTH_DAY,
+		DateConfiguration.YEAR_WEEK_DAY,
+		DateConfiguration.YEAR_DAY_OF_YEAR
+	};
+	
+	private static final long NANOS_PER_MINUTE = 
+			EpochArithmetic.NANOS_PER_MINUTE;
+	private static final long NANOS_PER_HOUR = EpochArithmetic.NANOS_PER_HOUR;
+	
+	private PackedIso8601DateTime() {
+	}
+	
+	/**
+	 * 
+	 * @param dt The date/time to pack
+	 * @param dest Receives the seconds from the epoch at index, and the 
+	 * 			other attributes at index + 1.
+	 * @param index Where in dest to put the two longs
+	 */
+	public static void pack(Iso8601DateTime dt, long[] dest, int index) {
+		Iso8601Time t = dt.time;
+		long secondOfDay = t.getHour()*3600L;
+		long nano = 0L;
+		byte precision;
+		long attributes = 0L;
+		if (t.mi != Iso8601Time.ABSENT) {
+			secondOfDay += t.mi*60L;
+		}
+		
+		if (t instanceof Iso8601FractionalTime) {
+			Iso8601FractionalTime f = (Iso8601FractionalTime)t;
+			long unitNanos;
+			if (t.mi != Iso8601Time.ABSENT) {
+				precision = TimePrecision.MINUTE;
+				unitNanos = NANOS_PER_MINUTE;
+			} else {
+				precision = TimePrecision.HOUR;
+				unitNanos = NANOS_PER_HOUR;
+			}
+			/*
+			 * Rounding must not carry the fraction into the next unit.
+			 */
+			long nanos = Math.min(Math.max(Math.round(f.fr*unitNanos), 0L),
+					unitNanos - 1);
+			secondOfDay += nanos/EpochArithmetic.NANOS_PER_SECOND;
+			nano = nanos%EpochArithmetic.NANOS_PER_SECOND;
+			attributes |= 1L << FRACTIONAL_SHIFT;
+		} else {
+			Iso8601UnitTime u = (Iso8601UnitTime)t;
+			precision = u.precision;
+			if (u.se != Iso8601Time.ABSENT) {
+				if (u.se == 60) {
+					secondOfDay += 59;
+					attributes |= 1L << LEAP_SECOND_SHIFT;
+				} else {
+					secondOfDay += u.se;
+				}
+			}
+			if (precision > TimePrecision.SECOND) {
+				nano = u.subSecond*
+						Iso8601TimeParser.LONG_POW10[9 - precision];
+			}
+		}
+		
+		int offsetMinutes = 0;
+		if (t.isTimeZoneSpecified()) {
+			attributes |= 1L << TZ_SPECIFIED_SHIFT;
+			if (t.isUTC) {
+				attributes |= 1L << UTC_SHIFT;
+			}
+			offsetMinutes = t.offsetMinutes();
+		}
+		
+		int config;
+		switch (dt.date.configuration) {
+			case YEAR_WEEK_DAY:
+				config = 1;
+				break;
+			case YEAR_DAY_OF_YEAR:
+				config = 2;
+				break;
+			default:
+				config = 0;
+		}
+		
+		dest[index] = dt.date.epochDay*EpochArithmetic.SECONDS_PER_DAY + 
+				secondOfDay - offsetMinutes*60L;
+		dest[index + 1] = attributes | nano |
+				((long)(precision + 2) << PRECISION_SHIFT) |
+				((long)config << CONFIG_SHIFT) |
+				((long)offsetMinutes << OFFSET_SHIFT);
+	}
+	
+	/**
+	 * 
+	 * @param src Holds the two longs from pack() at index and index + 1
+	 * @param index Where in src the two longs are
+	 * @return A new Iso8601DateTime equal to the one that was packed
+	 */
+	public static Iso8601DateTime toDateTime(long[] src, int index) {
+		return toDateTime(src[index], src[index + 1]);
+	}
+	
+	/**
+	 * 
+	 * @param epochSecond The first long from pack()
+	 * @param attributes The second long from pack()
+	 * @return A new Iso8601DateTime equal to the one that was packed
+	 */
+	public static Iso8601DateTime toDateTime(long epochSecond, 
+			long attributes) {
+		int offsetMinutes = getOffsetMinutes(attributes);
+		long local = epochSecond + offsetMinutes*60L;
+		long epochDay = EpochArithmetic.floorDiv(local, 
+				EpochArithmetic.SECONDS_PER_DAY);
+		int secondOfDay = (int)(local - 
+				epochDay*EpochArithmetic.SECONDS_PER_DAY);
+		int hour = secondOfDay/3600;
+		int minute = (secondOfDay%3600)/60;
+		int second = secondOfDay%60;
+		int nano = getNano(attributes);
+		byte precision = getPrecision(attributes);
+		
+		IsoTimeBuilder tb;
+		if (isFractional(attributes)) {
+			IsoFractionalTimeBuilder ftb = new IsoFractionalTimeBuilder(hour);
+			if (precision == TimePrecision.MINUTE) {
+				ftb.setMinute(minute);
+				ftb.setFraction((second*EpochArithmetic.NANOS_PER_SECOND + 
+						nano)/(double)NANOS_PER_MINUTE);
+			} else {
+				ftb.setFraction(((secondOfDay%3600)*
+						EpochArithmetic.NANOS_PER_SECOND + nano)/
+						(double)NANOS_PER_HOUR);
+			}
+			tb = ftb;
+		} else {
+			IsoUnitTimeBuilder utb = new IsoUnitTimeBuilder(hour);
+			if (precision >= TimePrecision.MINUTE) {
+				utb.setMinute(minute);
+			}
+			if (precision >= TimePrecision.SECOND) {
+				utb.setSecond((isLeapSecond(attributes)) ? 60 : second);
+				utb.setPrecision(precision);
+				utb.setSubsecond((int)(nano/
+						Iso8601TimeParser.LONG_POW10[9 - precision]));
+			}
+			tb = utb;
+		}
+		
+		if (isTimeZoneSpecified(attributes)) {
+			tb.setIsUtc(((attributes >>> UTC_SHIFT) & 1L) == 1L);
+			tb.setTimeZoneOffsetHour(offsetMinutes/60);
+			tb.setTimeZoneOffsetMinute(Math.abs(offsetMinutes%60));
+		}
+		
+		Iso8601Time time = (tb instanceof IsoUnitTimeBuilder) ? 
+				new Iso8601UnitTime((IsoUnitTimeBuilder)tb) :
+				new Iso8601FractionalTime((IsoFractionalTimeBuilder)tb);
+		return new Iso8601DateTime(toDate(getDateConfiguration(attributes), 
+				epochDay), time);
+	}
+	
+	private static Iso8601Date toDate(DateConfiguration config, 
+			long epochDay) {
+		long ymd = EpochArithmetic.yearMonthDay(epochDay);
+		int year = (int)EpochArithmetic.yearOf(ymd);
+		switch (config) {
+			case YEAR_WEEK_DAY:
+				return new Iso8601Date(config, 
+						(int)EpochArithmetic.weekBasedYear(epochDay),
+						EpochArithmetic.isoWeekOfYear(epochDay),
+						EpochArithmetic.isoDayOfWeek(epochDay));
+			case YEAR_DAY_OF_YEAR:
+				return new Iso8601Date(config, year, 
+						EpochArithmetic.dayOfYearOfEpochDay(epochDay));
+			default:
+				return new Iso8601Date(config, year, 
+						EpochArithmetic.monthOf(ymd),
+						EpochArithmetic.dayOfMonthOf(ymd));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param attributes The second long from pack()
+	 * @return The nanosecond within the second, 0 to 999,999,999
+	 */
+	public static int getNano(long attributes) {
+		return (int)(attributes & NANO_MASK);
+	}
+	
+	/**
+	 * 
+	 * @param attributes The second long from pack()
+	 * @return The TimePrecision code of the time
+	 */
+	public static byte getPrecision(long attributes) {
+		return (byte)(((int)(attributes >>> PRECISION_SHIFT) & 
+				PRECISION_MASK) - 2);
+	}
+	
+	/**
+	 * 
+	 * @param attributes The second long from pack()
+	 * @return The offset from UTC of the time zone, in minutes (0 when the
+	 * 			time zone was not specified)
+	 */
+	public static int getOffsetMinutes(long attributes) {
+		return (int)(attributes >> OFFSET_SHIFT);
+	}
+	
+	public static boolean isTimeZoneSpecified(long attributes) {
+		return ((attributes >>> TZ_SPECIFIED_SHIFT) & 1L) == 1L;
+	}
+	
+	/**
+	 * 
+	 * @param attributes The second long from pack()
+	 * @return true if the time zone was explicitly specified as UTC, like
+	 * 			Iso8601Time.isUtcTimeZone()
+	 */
+	public static boolean isUtcTimeZone(long attributes) {
+		return isTimeZoneSpecified(attributes) && 
+				((attributes >>> UTC_SHIFT) & 1L) == 1L;
+	}
+	
+	public static boolean isFractional(long attributes) {
+		return ((attributes >>> FRACTIONAL_SHIFT) & 1L) == 1L;
+	}
+	
+	public static boolean isLeapSecond(long attributes) {
+		return ((attributes >>> LEAP_SECOND_SHIFT) & 1L) == 1L;
+	}
+	
+	public static DateConfiguration getDateConfiguration(long attributes) {
+		return CONFIGURATIONS[(int)(attributes >>> CONFIG_SHIFT) & 
+				CONFIG_MASK];
+	}
+	
+	/**
+	 * 
+	 * @param epochSecond The first long from pack()
+	 * @param attributes The second long from pack()
+	 * @return The day of the date/time in its own time zone, as days from
+	 * 			1970-01-01
+	 */
+	public static long getLocalEpochDay(long epochSecond, long attributes) {
+		return EpochArithmetic.floorDiv(epochSecond + 
+				getOffsetMinutes(attributes)*60L, 
+				EpochArithmetic.SECONDS_PER_DAY);
+	}
+	
+	/**
+	 * 
+	 * @param epochSecond The first long from pack()
+	 * @param attributes The second long from pack()
+	 * @return Milliseconds from 1970-01-01T00:00:00Z, truncated
+	 * @throws IllegalArgumentException if that does not fit in a long
+	 */
+	public static long toEpochMillis(long epochSecond, long attributes) {
+		return EpochArithmetic.scale(epochSecond, 
+				EpochArithmetic.MILLIS_PER_SECOND, getNano(attributes)/1000000);
+	}
+}
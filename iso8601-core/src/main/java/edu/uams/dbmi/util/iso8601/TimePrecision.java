@@ -0,0 +1,43 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+/**
+ * Primitive codes for the precision with which a time was written, for 
+ * 	callers that want the precision without a JScience Unit (see 
+ * 	Iso8601ParseResult.getPrecision()).
+ * 
+ * A code of zero or more is the number of digits after the decimal point 
+ * 	in the seconds, so SECOND is 0, MILLISECOND is 3, and NANOSECOND is 9.
+ * 	Times written with a fractional hour or minute (e.g., 11.5 or 11:30.5)
+ * 	report HOUR or MINUTE.
+ * 
+ * @author williamhogan
+ *
+ */
+public final class TimePrecision {
+	public static final byte HOUR = -2;
+	public static final byte MINUTE = -1;
+	public static final byte SECOND = 0;
+	public static final byte DECISECOND = 1;
+	public static final byte CENTISECOND = 2;
+	public static final byte MILLISECOND = 3;
+	public static final byte SECOND_MIN_4 = 4;
+	public static final byte MICROSECOND = 6;
+	public static final byte NANOSECOND = 9;
+	
+	private TimePrecision() {
+	}
+}
@@ -0,0 +1,160 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+/*
+ * Per-year facts for converting among calendar, ordinal and week dates:
+ * 	the epoch day of January 1st, the epoch day of ISO week 1 day 1 (the
+ * 	Monday of the week with January 4th), whether the year is a leap 
+ * 	year, and whether it has 53 ISO weeks.
+ * 
+ * Years from Iso8601Date.YEAR_TABLE_MIN_PROPERTY to 
+ * 	YEAR_TABLE_MAX_PROPERTY (by default -9999 to 9999, and never beyond
+ * 	+/-50000) are looked up in a table that is filled in as years are 
+ * 	first used.  Each year is one int, and 0 means not yet computed, so 
+ * 	there is no locking: two threads that race to fill in a year write 
+ * 	the same value, and ints are written atomically.  Other years are 
+ * 	computed with EpochArithmetic every time.
+ * 
+ * 	bit  0		always 1 once computed
+ * 	bit  1		leap year
+ * 	bit  2		53-week year
+ * 	bits 3-5	week 1 day 1 minus January 1st, plus 3 (0-6)
+ * 	bits 6-31	epoch day of January 1st (signed)
+ */
+final class YearTable {
+	static final int DEFAULT_MIN_YEAR = -9999;
+	static final int DEFAULT_MAX_YEAR = 9999;
+	
+	/*
+	 * 26 signed bits of epoch day cover about +/-91,000 years from 1970.
+	 */
+	static final int LIMIT = 50000;
+	
+	static final int MIN_YEAR;
+	static final int MAX_YEAR;
+	private static final int[] ENTRIES;
+	
+	private static final int COMPUTED = 1;
+	private static final int LEAP = 1 << 1;
+	private static final int WEEKS_53 = 1 << 2;
+	private static final int WEEK_ONE_SHIFT = 3;
+	private static final int JANUARY_FIRST_SHIFT = 6;
+	
+	/*
+	 * Days in the year before the first of each month, in a common year.
+	 */
+	private static final int[] DAYS_BEFORE_MONTH = { 0, 31, 59, 90, 120, 
+		151, 181, 212, 243, 273, 304, 334 };
+	
+	static {
+		int min = Math.max(Integer.getInteger(
+				Iso8601Date.YEAR_TABLE_MIN_PROPERTY, DEFAULT_MIN_YEAR), -LIMIT);
+		int max = Math.min(Integer.getInteger(
+				Iso8601Date.YEAR_TABLE_MAX_PROPERTY, DEFAULT_MAX_YEAR), LIMIT);
+		MIN_YEAR = min;
+		MAX_YEAR = Math.max(min - 1, max);
+		ENTRIES = new int[MAX_YEAR - MIN_YEAR + 1];
+	}
+	
+	private YearTable() {
+	}
+	
+	static boolean covers(long year) {
+		return year >= MIN_YEAR && year <= MAX_YEAR;
+	}
+	
+	/*
+	 * Only for years the table covers.
+	 */
+	private static int entry(long year) {
+		int i = (int)(year - MIN_YEAR);
+		int e = ENTRIES[i];
+		if (e == 0) {
+			e = computeEntry(year);
+			ENTRIES[i] = e;
+		}
+		return e;
+	}
+	
+	static int computeEntry(long year) {
+		long januaryFirst = EpochArithmetic.civilEpochDay(year, 1, 1);
+		long weekOneDayOne = EpochArithmetic.civilWeekOneDayOne(year);
+		int e = COMPUTED;
+		if (EpochArithmetic.civilIsLeapYear(year)) {
+			e |= LEAP;
+		}
+		if (EpochArithmetic.civilWeekOneDayOne(year + 1) - weekOneDayOne == 
+				53*7) {
+			e |= WEEKS_53;
+		}
+		e |= (int)(weekOneDayOne - januaryFirst + 3) << WEEK_ONE_SHIFT;
+		return e | (int)januaryFirst << JANUARY_FIRST_SHIFT;
+	}
+	
+	private static long januaryFirst(int entry) {
+		return entry >> JANUARY_FIRST_SHIFT;
+	}
+	
+	private static long weekOneDayOne(int entry) {
+		return januaryFirst(entry) + 
+				((entry >>> WEEK_ONE_SHIFT) & 7) - 3;
+	}
+	
+	static long januaryFirst(long year) {
+		if (covers(year)) {
+			return januaryFirst(entry(year));
+		}
+		return EpochArithmetic.civilEpochDay(year, 1, 1);
+	}
+	
+	static long weekOneDayOne(long year) {
+		if (covers(year)) {
+			return weekOneDayOne(entry(year));
+		}
+		return EpochArithmetic.civilWeekOneDayOne(year);
+	}
+	
+	static boolean isLeapYear(long year) {
+		if (covers(year)) {
+			return (entry(year) & LEAP) != 0;
+		}
+		return EpochArithmetic.civilIsLeapYear(year);
+	}
+	
+	static boolean is53WeekYear(long year) {
+		if (covers(year)) {
+			return (entry(year) & WEEKS_53) != 0;
+		}
+		return EpochArithmetic.civilWeekOneDayOne(year + 1) - 
+				EpochArithmetic.civilWeekOneDayOne(year) == 53*7;
+	}
+	
+	/*
+	 * See EpochArithmetic.epochDay().  Months outside 1-12 are left to
+	 * 	the arithmetic, which is lenient about them too.
+	 */
+	static long epochDay(long year, int month, int dayOfMonth) {
+		if (month < 1 || month > 12 || !covers(year)) {
+			return EpochArithmetic.civilEpochDay(year, month, dayOfMonth);
+		}
+		int e = entry(year);
+		int before = DAYS_BEFORE_MONTH[month - 1];
+		if (month > 2 && (e & LEAP) != 0) {
+			before++;
+		}
+		return januaryFirst(e) + before + dayOfMonth - 1;
+	}
+}
@@ -347,4 +347,72 @@ public class Iso8601DateFormatterTest extends TestCase {
 			assertEquals(dTxt, "-0" + extendedTxt.substring(1));		
 		
 	}
+	
+	@Test
+	public void testFormatTo() throws Exception {
+		FormatOptions fo = new FormatOptions();
+		fo.setConfiguration(DateConfiguration.YEAR_WEEK_DAY);
+		fo.setExtended(true);
+		fo.setForceSignedYear(true);
+		fo.setYearDigits(6);
+		Iso8601DateFormatter df = new Iso8601DateFormatter(fo);
+		Iso8601Date d = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY,
+				2009, 12, 31);
+		
+		char[] c = new char[20];
+		assertEquals(13, df.formatTo(d, c, 2));
+		assertEquals("+002009-W53-4", new String(c, 2, 13));
+		assertEquals('\0', c[15]);
+		
+		byte[] b = new byte[13];
+		assertEquals(13, df.formatTo(d, b, 0));
+		assertEquals("+002009-W53-4", new String(b, "US-ASCII"));
+		
+		StringBuilder sb = new StringBuilder();
+		assertEquals(13, df.formatTo(d, sb));
+		assertEquals(df.format(d), sb.toString());
+	}
+	
+	@Test
+	public void testOptionsCopied() {
+		FormatOptions fo = new FormatOptions();
+		fo.setConfiguration(DateConfiguration.YEAR_MONTH_DAY);
+		fo.setExtended(true);
+		fo.setYearDigits(4);
+		Iso8601DateFormatter df = new Iso8601DateFormatter(fo);
+		fo.setExtended(false);
+		fo.setConfiguration(DateConfiguration.YEAR);
+		
+		Iso8601Date d = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY,
+				2011, 10, 25);
+		assertEquals("2011-10-25", df.format(d));
+		assertEquals("2011", new Iso8601DateFormatter(fo).format(d));
+	}
+	
+	@Test
+	public void testYearDigits() {
+		int[] years = { 0, 7, 45, 999, 2011, 10000, 123456, -1, -2011, 
+				-123456789 };
+		for (int digits=4; digits<=24; digits+=5) {
+			FormatOptions fo = new FormatOptions();
+			fo.setConfiguration(DateConfiguration.YEAR_DAY_OF_YEAR);
+			fo.setExtended(false);
+			fo.setYearDigits(digits);
+			Iso8601DateFormatter df = new Iso8601DateFormatter(fo);
+			for (int y : years) {
+				Iso8601Date d = new Iso8601Date(
+						DateConfiguration.YEAR_DAY_OF_YEAR, y, 5);
+				StringBuilder expected = new StringBuilder();
+				String abs = Integer.toString(Math.abs(y));
+				if (y < 0) {
+					expected.append('-');
+				}
+				for (int i=abs.length(); i<digits; i++) {
+					expected.append('0');
+				}
+				expected.append(abs).append("005");
+				assertEquals(expected.toString(), df.format(d));
+			}
+		}
+	}
 }
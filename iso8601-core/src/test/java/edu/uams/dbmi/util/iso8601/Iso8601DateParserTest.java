@@ -636,8 +636,7 @@ public class Iso8601DateParserTest extends TestCase {
 	
 	@Test
 	public void testExtendedYearParse() {
-		Iso8601DateParser parser = new Iso8601DateParser();
-		parser.setExtraYearDigits(2);
+		Iso8601DateParser parser = new Iso8601DateParser(2);
 		
 		String s1 = "+001988-03-02";
 		try {
@@ -15,7 +15,14 @@
 package edu.uams.dbmi.util.iso8601;
 
 import java.util.Calendar;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.GregorianCalendar;
+import java.util.TimeZone;
 
 import org.junit.Test;
 
@@ -353,4 +360,206 @@ public class Iso8601DateTest extends TestCase {
 		assertEquals(c2.get(Calendar.DAY_OF_YEAR), 3);
 		
 	}
+	
+	@Test
+	public void testOrderingAndHashCode() {
+		Iso8601Date day = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 
+				2000, 1, 1);
+		Iso8601Date dayOfYear = new Iso8601Date(
+				DateConfiguration.YEAR_DAY_OF_YEAR, 2000, 1);
+		assertEquals(day, dayOfYear);
+		assertEquals(day.hashCode(), dayOfYear.hashCode());
+		assertEquals(0, day.compareTo(dayOfYear));
+		
+		Iso8601Date century = new Iso8601Date(DateConfiguration.CENTURY, 20);
+		Iso8601Date year = new Iso8601Date(DateConfiguration.YEAR, 2000);
+		Iso8601Date month = new Iso8601Date(DateConfiguration.YEAR_MONTH, 
+				2000, 1);
+		Iso8601Date week = new Iso8601Date(DateConfiguration.YEAR_WEEK, 
+				2000, 1);
+		Iso8601Date before = new Iso8601Date(
+				DateConfiguration.YEAR_MONTH_DAY, 1999, 12, 31);
+		
+		List<Iso8601Date> dates = new ArrayList<Iso8601Date>(Arrays.asList(
+				week, day, month, before, century, year));
+		Collections.sort(dates);
+		assertEquals(Arrays.asList(before, century, year, month, day, week), 
+				dates);
+		Collections.sort(dates, Iso8601Date.instantOrder(false));
+		assertEquals(Arrays.asList(before, day, month, year, century, week), 
+				dates);
+		
+		HashSet<Iso8601Date> set = new HashSet<Iso8601Date>(dates);
+		set.add(dayOfYear);
+		assertEquals(6, set.size());
+		assertTrue(set.contains(new Iso8601Date(
+				DateConfiguration.YEAR_WEEK_DAY, 1999, 52, 6)));
+	}
+	
+	@Test
+	public void testIntervalEpochDays() {
+		Iso8601Date[] dates = { 
+				new Iso8601Date(DateConfiguration.CENTURY, 19),
+				new Iso8601Date(DateConfiguration.YEAR, 1900),
+				new Iso8601Date(DateConfiguration.YEAR_MONTH, 2012, 2),
+				new Iso8601Date(DateConfiguration.YEAR_MONTH, 2012, 12),
+				new Iso8601Date(DateConfiguration.YEAR_WEEK, 2009, 53),
+				new Iso8601Date(DateConfiguration.YEAR_WEEK_DAY, 2009, 53, 7),
+				new Iso8601Date(DateConfiguration.YEAR_DAY_OF_YEAR, -44, 75) };
+		long[][] expected = { { -25567, 10956 }, { -25567, -25203 }, 
+				{ 15371, 15399 }, { 15675, 15705 }, { 14606, 14612 },
+				{ 14612, 14612 }, { -735525, -735525 } };
+		for (int i=0; i<dates.length; i++) {
+			long packed = PackedIso8601Date.pack(dates[i]);
+			assertEquals(expected[i][0], dates[i].getIntervalStartEpochDay());
+			assertEquals(expected[i][1], dates[i].getIntervalEndEpochDay());
+			assertEquals(PackedIso8601Date.getIntervalStartEpochDay(packed), 
+					dates[i].getIntervalStartEpochDay());
+			assertEquals(PackedIso8601Date.getIntervalEndEpochDay(packed), 
+					dates[i].getIntervalEndEpochDay());
+		}
+	}
+	
+	@Test
+	/*
+	 * Every day of the listed years, plus the week-1/week-53 boundaries of
+	 * 	every year from -1000 to 3000, built all three ways and checked 
+	 * 	against a proleptic GregorianCalendar.  Years past 9999 are outside
+	 * 	the year table, so they check the arithmetic behind it.
+	 */
+	public void testAgainstProlepticCalendar() {
+		int[] wholeYears = { -10001, -401, -400, -2, -1, 0, 1, 1582, 1900, 
+				2000, 2004, 2009, 2015, 2020, 9999, 10000, 50001 };
+		for (int y : wholeYears) {
+			int days = Iso8601Date.isLeapYear(y) ? 366 : 365;
+			for (int doy=1; doy<=days; doy++) {
+				checkAgainstCalendar(y, doy);
+			}
+		}
+		for (int y=-1000; y<=3000; y++) {
+			for (int doy=1; doy<=7; doy++) {
+				checkAgainstCalendar(y, doy);
+			}
+			int days = Iso8601Date.isLeapYear(y) ? 366 : 365;
+			for (int doy=days-6; doy<=days; doy++) {
+				checkAgainstCalendar(y, doy);
+			}
+		}
+	}
+	
+	private static void checkAgainstCalendar(int year, int dayOfYear) {
+		Iso8601Date d = new Iso8601Date(DateConfiguration.YEAR_DAY_OF_YEAR, 
+				year, dayOfYear);
+		GregorianCalendar c = new GregorianCalendar(
+				TimeZone.getTimeZone("UTC"));
+		c.setGregorianChange(new Date(Long.MIN_VALUE));
+		c.setFirstDayOfWeek(Calendar.MONDAY);
+		c.setMinimalDaysInFirstWeek(4);
+		c.setTimeInMillis(d.getIntervalStartEpochDay()*86400000L);
+		
+		/* The calendar has no year 0: 1 BC is year 0, 2 BC is -1, ... */
+		int cYear = (c.get(Calendar.ERA) == GregorianCalendar.BC) ? 
+				1 - c.get(Calendar.YEAR) : c.get(Calendar.YEAR);
+		int cMonth = c.get(Calendar.MONTH) + 1;
+		int cWeek = c.get(Calendar.WEEK_OF_YEAR);
+		int cWeekYear = cYear;
+		if (cMonth == 1 && cWeek > 50) {
+			cWeekYear--;
+		} else if (cMonth == 12 && cWeek == 1) {
+			cWeekYear++;
+		}
+		String at = year + "-" + dayOfYear;
+		assertEquals(at, year, cYear);
+		assertEquals(at, dayOfYear, c.get(Calendar.DAY_OF_YEAR));
+		assertEquals(at, cMonth, d.getMonth());
+		assertEquals(at, c.get(Calendar.DAY_OF_MONTH), d.getDayOfMonth());
+		assertEquals(at, Iso8601Date.convertCalendarDayOfWeekToIso(
+				c.get(Calendar.DAY_OF_WEEK)), d.getDayOfWeek());
+		assertEquals(at, cWeek, d.getWeekOfYear());
+		assertEquals(at, cWeekYear, d.getWeekCalendarYear());
+		
+		Iso8601Date ymd = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 
+				year, cMonth, c.get(Calendar.DAY_OF_MONTH));
+		Iso8601Date ywd = new Iso8601Date(DateConfiguration.YEAR_WEEK_DAY, 
+				cWeekYear, cWeek, d.getDayOfWeek());
+		assertEquals(at, d, ymd);
+		assertEquals(at, d, ywd);
+		assertEquals(at, dayOfYear, ymd.getDayOfYear());
+		assertEquals(at, dayOfYear, ywd.getDayOfYear());
+		assertEquals(at, year, ywd.getYear());
+		assertEquals(at, cMonth, ywd.getMonth());
+		
+		if (cMonth == 12 && c.get(Calendar.DAY_OF_MONTH) == 28) {
+			assertEquals(at, cWeek == 53, Iso8601Date.is53WeekYear(year));
+		}
+	}
+	
+	@Test
+	public void testCurrentDate() {
+		Calendar before = Calendar.getInstance();
+		Iso8601Date d = new Iso8601Date();
+		Calendar after = Calendar.getInstance();
+		/* In case midnight falls between the calls. */
+		Calendar c = (d.getDayOfMonth() == 
+				before.get(Calendar.DAY_OF_MONTH)) ? before : after;
+		assertEquals(c.get(Calendar.YEAR), d.getYear());
+		assertEquals(c.get(Calendar.MONTH) + 1, d.getMonth());
+		assertEquals(c.get(Calendar.DAY_OF_MONTH), d.getDayOfMonth());
+		assertTrue(d.isDay());
+	}
+	
+	@Test
+	/*
+	 * 2010-001 is Friday of 2009-W53.
+	 */
+	public void testOrdinalDateWeekCalendarYear() {
+		Iso8601Date d = new Iso8601Date(DateConfiguration.YEAR_DAY_OF_YEAR, 
+				2010, 1);
+		assertEquals(2010, d.getYear());
+		assertEquals(2009, d.getWeekCalendarYear());
+		assertEquals(53, d.getWeekOfYear());
+		assertEquals(5, d.getDayOfWeek());
+	}
+	
+	@Test
+	public void testIs53WeekYearNegative() {
+		assertTrue(Iso8601Date.is53WeekYear(-2));
+		assertFalse(Iso8601Date.is53WeekYear(-3));
+		assertTrue(Iso8601Date.is53WeekYear(-8));
+		assertTrue(Iso8601Date.is53WeekYear(-13));
+		assertFalse(Iso8601Date.is53WeekYear(-14));
+		Iso8601Date d = new Iso8601Date(DateConfiguration.YEAR_WEEK_DAY, 
+				-2, 53, 1);
+		assertEquals(-2, d.getWeekCalendarYear());
+		assertEquals(53, d.getWeekOfYear());
+	}
+	
+	@Test
+	public void testGettersDoNotModify() {
+		Iso8601Date d = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 
+				1999, 12, 31);
+		Iso8601Date same = new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 
+				1999, 12, 31);
+		for (int i=0; i<3; i++) {
+			assertEquals(19, d.getCentury());
+			assertEquals(12, d.getMonth());
+			assertEquals(1999, d.getYear());
+			assertEquals(31, d.getDayOfMonth());
+			assertEquals(365, d.getDayOfYear());
+		}
+		assertEquals(same, d);
+		assertEquals(same.hashCode(), d.hashCode());
+		assertEquals(same.getIntervalStartEpochDay(), 
+				d.getIntervalStartEpochDay());
+		
+		Iso8601Date month = new Iso8601Date(DateConfiguration.YEAR_MONTH, 
+				2012, 2);
+		for (int i=0; i<3; i++) {
+			assertEquals(20, month.getCentury());
+			assertEquals(2, month.getMonth());
+		}
+		assertEquals(new Iso8601Date(DateConfiguration.YEAR_MONTH, 2012, 2), 
+				month);
+		assertEquals(15399, month.getIntervalEndEpochDay());
+	}
 }
@@ -0,0 +1,168 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import junit.framework.TestCase;
+
+public class Iso8601DateTimeColumnParserTest extends TestCase {
+	
+	String[] column = { "2011-11-11T11:11:11.111Z", "garbage", 
+			"20111111T001111-1100", null, "2011-W45-5T11:11+05:30",
+			"2011-11T11:11Z", "1500-01-01T00:00Z" };
+	
+	@Test
+	public void testParseColumn() throws Exception {
+		Iso8601DateTimeColumnParser cp = new Iso8601DateTimeColumnParser();
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		
+		long[] millis = new long[column.length];
+		byte[] precision = new byte[column.length];
+		short[] offsets = new short[column.length];
+		BitSet errors = new BitSet();
+		errors.set(0);
+		assertEquals(3, cp.parseToEpochMillis(column, millis, precision, 
+				offsets, errors));
+		
+		BitSet expected = new BitSet();
+		expected.set(1);
+		expected.set(3);
+		expected.set(5);
+		assertEquals(expected, errors);
+		
+		for (int i=0; i<column.length; i++) {
+			if (errors.get(i)) {
+				assertEquals(0L, millis[i]);
+			} else {
+				assertEquals(p.parseToEpochMillis(column[i], r), millis[i]);
+				assertEquals(r.getPrecision(), precision[i]);
+				assertEquals(r.getOffsetMinutes(), offsets[i]);
+			}
+		}
+		assertEquals(millis[0], millis[2] + 111);
+		assertEquals(330, offsets[4]);
+		
+		/*
+		 * The List form, without the optional outputs, gives the same 
+		 * 	instants.
+		 */
+		long[] millis2 = new long[column.length];
+		BitSet errors2 = new BitSet();
+		cp.parseToEpochMillis(new LinkedList<String>(Arrays.asList(column)), 
+				millis2, null, null, errors2);
+		assertTrue(Arrays.equals(millis, millis2));
+		assertEquals(errors, errors2);
+	}
+	
+	@Test
+	public void testParseColumnRangeToNanos() {
+		Iso8601DateTimeColumnParser cp = new Iso8601DateTimeColumnParser();
+		long[] nanos = new long[column.length];
+		Arrays.fill(nanos, -1L);
+		BitSet errors = new BitSet();
+		
+		assertEquals(3, cp.parseToEpochNanos(column, 3, 7, nanos, null, null,
+				errors));
+		assertEquals(-1L, nanos[2]);
+		assertEquals(1320990060000000000L, nanos[4]);
+		
+		/*
+		 * Year 1500 is out of the range of epoch nanoseconds.
+		 */
+		assertTrue(errors.get(3));
+		assertTrue(errors.get(5));
+		assertTrue(errors.get(6));
+		assertEquals(3, errors.cardinality());
+	}
+	
+	/*
+	 * With a small threshold, a modest column is split many times over, 
+	 * 	and must come out exactly as the sequential parser leaves it.
+	 */
+	@Test
+	public void testParallelMatchesSequential() {
+		CharSequence[] big = buildColumn(50000);
+		big[7] = null;
+		big[big.length - 1] = "garbage";
+		
+		long[] expected = new long[big.length];
+		byte[] expectedPrecision = new byte[big.length];
+		BitSet expectedErrors = new BitSet();
+		int failed = new Iso8601DateTimeColumnParser().parseToEpochNanos(big, 
+				expected, expectedPrecision, null, expectedErrors);
+		assertTrue(failed > 2);
+		
+		ForkJoinPool pool = new ForkJoinPool(4);
+		Iso8601ParallelDateTimeColumnParser pp = 
+				new Iso8601ParallelDateTimeColumnParser(pool, 100);
+		long[] actual = new long[big.length];
+		byte[] actualPrecision = new byte[big.length];
+		BitSet actualErrors = new BitSet();
+		actualErrors.set(3);
+		assertEquals(failed, pp.parseToEpochNanos(big, actual, 
+				actualPrecision, null, actualErrors));
+		pool.shutdown();
+		
+		assertTrue(Arrays.equals(expected, actual));
+		assertTrue(Arrays.equals(expectedPrecision, actualPrecision));
+		assertEquals(expectedErrors, actualErrors);
+		
+		/*
+		 * A range, which only touches its own bits.
+		 */
+		actualErrors.set(0, big.length);
+		new Iso8601ParallelDateTimeColumnParser().parseToEpochNanos(big, 1000,
+				big.length, actual, null, null, actualErrors);
+		assertEquals(1000 + expectedErrors.get(1000, big.length).cardinality(),
+				actualErrors.cardinality());
+	}
+	
+	/*
+	 * Random date/times in both formats, with some malformed ones (no 
+	 * 	seconds and a space instead of a T) mixed in.
+	 */
+	static CharSequence[] buildColumn(int rows) {
+		Random r = new Random(8601);
+		CharSequence[] column = new CharSequence[rows];
+		for (int i=0; i<rows; i++) {
+			int yr = 1970 + r.nextInt(60);
+			int mo = 1 + r.nextInt(12);
+			int da = 1 + r.nextInt(28);
+			int hr = r.nextInt(24);
+			int mi = r.nextInt(60);
+			int se = r.nextInt(60);
+			int ms = r.nextInt(1000);
+			int kind = r.nextInt(100);
+			if (kind < 60) {
+				column[i] = String.format("%04d-%02d-%02dT%02d:%02d:%02d.%03dZ",
+						yr, mo, da, hr, mi, se, ms);
+			} else if (kind < 95) {
+				column[i] = String.format("%04d%02d%02dT%02d%02d%02d-0500",
+						yr, mo, da, hr, mi, se);
+			} else {
+				column[i] = String.format("%04d-%02d-%02d %02d:%02d", 
+						yr, mo, da, hr, mi);
+			}
+		}
+		return column;
+	}
+}
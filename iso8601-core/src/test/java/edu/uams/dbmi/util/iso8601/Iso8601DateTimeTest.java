@@ -0,0 +1,631 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+import org.junit.Test;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+import junit.framework.TestCase;
+
+public class Iso8601DateTimeTest extends TestCase {
+	
+	@Test
+	public void testDateTimes() {
+		String ans1 =  "2011-11-11T11:11:11.111-11:00";
+		int yr1 = 2011;
+		int mo1 = 11;
+		int da1 = 11;
+		int hr1 = 11;
+		int mi1 = 11;
+		int se1 = 11;
+		int subSec1 = 111;
+		byte p1 = TimePrecision.MILLISECOND;
+		int tzHr1 = -11;
+		int tzMi1 = 0;
+		
+		dateTimeTest(ans1, yr1, mo1, da1, hr1, mi1, se1, subSec1, p1, tzHr1,
+				tzMi1);
+		
+		String ans2 = "2001-01-02T00:00:00+04:00";
+		int yr2 = 2001;
+		int mo2 = 1;
+		int da2 = 1;
+		int hr2 = 24;
+		int mi2 = 0;
+		int se2 = 0;
+		int subSec2 = 0;
+		byte p2 = TimePrecision.SECOND;
+		int tzHr2 = 4;
+		int tzMi2 = 0;
+		
+		dateTimeTest(ans2, yr2, mo2, da2, hr2, mi2, se2, subSec2, p2, tzHr2,
+				tzMi2);
+	}
+	
+	@Test
+	public void dateTimeTest(String ans, int yr, int mo, int da, int hr,
+			int mi, int se, int subSec, byte p, int tzHr, 
+			int tzMin) {
+		Iso8601Date d1 = new Iso8601Date(
+				DateConfiguration.YEAR_MONTH_DAY, yr, mo, da);
+		assertNotNull(d1);
+		
+		IsoUnitTimeBuilder tb = new IsoUnitTimeBuilder(hr);
+		tb.setMinute(mi);
+		tb.setSecond(se);
+		tb.setPrecision(p);
+		tb.setSubsecond(subSec);
+		tb.setTimeZoneOffsetHour(tzHr);
+		tb.setTimeZoneOffsetMinute(tzMin);
+		Iso8601UnitTime t1 = new Iso8601UnitTime(tb);
+		assertNotNull(t1);
+		
+		Iso8601DateTime dt1Construct = new Iso8601DateTime(d1,t1);
+		assertNotNull(dt1Construct);
+		
+		Iso8601DateTimeParser p1 = new Iso8601DateTimeParser();
+		Iso8601DateTimeFormatter f1 = new Iso8601DateTimeFormatter();
+		
+		Iso8601DateTime dt1Parsed = null;
+		String dt1TxtFormatted = null;
+		
+		Iso8601DateFormatter df = new Iso8601DateFormatter();
+		System.out.println(df.format(dt1Construct.getDate()));
+		try {
+			dt1Parsed = p1.parse(ans);
+			//Iso8601UnitTime t2 = (Iso8601UnitTime)dt1Parsed.getTime();
+			System.out.println(df.format(dt1Parsed.getDate()));
+			assertNotNull(dt1Parsed);
+			dt1TxtFormatted = f1.format(dt1Construct);
+			assertNotNull(dt1TxtFormatted);
+		} catch (Iso8601DateParseException e) {
+			e.printStackTrace();
+			assertTrue(dt1Parsed != null);
+		} catch (Iso8601TimeParseException e) {
+			e.printStackTrace();
+			assertTrue(dt1Parsed != null);
+		}
+		
+		assertTrue(dt1Construct.equals(dt1Parsed));
+		assertEquals(ans, dt1TxtFormatted);
+	}
+	
+	@Test
+	public void testParseBasicAndExtended() {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		String[] ok = { "20111111T111111Z", "2011-11-11T11:11:11Z", 
+				"2011-11-11T11", "20111111T11-05", "2011-315T11:11+05:30",
+				"2011315T1111", "2011-W45-5T11:11:11.5", "2011W455T111111,5",
+				"-20111111T111111" };
+		for (String s : ok) {
+			try {
+				Iso8601DateTime dt = p.parse(s);
+				assertNotNull(dt);
+				assertEquals(2011, Math.abs(dt.getDate().getYear()));
+				assertEquals(11, dt.getTime().getHour());
+			} catch (Exception e) {
+				e.printStackTrace();
+				fail(s);
+			}
+		}
+		
+		String[] bad = { "2011-11-11T111111", "20111111T11:11", 
+				"2011-11-11", "2011-11-11T", "2011-11-11TT11", 
+				"2011-11-11T11T", "T11:11" };
+		for (String s : bad) {
+			boolean errExpected = false;
+			try {
+				p.parse(s);
+			} catch (Iso8601DateParseException e) {
+				errExpected = true;
+			} catch (Iso8601TimeParseException e) {
+				errExpected = true;
+			}
+			assertTrue(s, errExpected);
+		}
+	}
+	
+	@Test
+	public void testParseInPlace() {
+		String record = "id=7|2011-11-11T11:11:11.111-11:00|end";
+		int start = record.indexOf('|') + 1;
+		int end = record.lastIndexOf('|');
+		int tIdx = record.indexOf('T', start);
+		StringBuilder sb = new StringBuilder(record);
+		char[] buf = record.toCharArray();
+		try {
+			Iso8601DateTime expected = new Iso8601DateTimeParser().parse(
+					record.substring(start, end));
+			Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+			assertEquals(expected, p.parse(sb, start, end));
+			assertEquals(expected, p.parse(buf, start, end-start));
+			
+			Iso8601Date d = new Iso8601DateParser().parse(sb, start, tIdx);
+			assertEquals(expected.getDate(), d);
+			d = new Iso8601DateParser().parse(buf, start, tIdx-start);
+			assertEquals(expected.getDate(), d);
+			
+			Iso8601TimeParser tp = new Iso8601TimeParser();
+			Iso8601UnitTime t = (Iso8601UnitTime)tp.parse(sb, tIdx, end);
+			assertEquals(11, t.getHour());
+			assertEquals(111, t.getSubsecond().intValue());
+			t = (Iso8601UnitTime)tp.parse(buf, tIdx, end-tIdx);
+			assertEquals(-11, t.getTimeZoneHourOffset());
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail();
+		}
+		
+		boolean errExpected = false;
+		try {
+			new Iso8601DateTimeParser().parse(buf, start, buf.length);
+		} catch (IndexOutOfBoundsException e) {
+			errExpected = true;
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		assertTrue(errExpected);
+	}
+	
+	@Test
+	public void testParseBytes() throws Exception {
+		String txt = "2011-11-11T11:11:11.111-11:00";
+		byte[] record = ("id=7|" + txt + "|end").getBytes("US-ASCII");
+		int start = 5;
+		int len = txt.length();
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601DateTime expected = p.parse(txt);
+		
+		assertEquals(expected, p.parse(record, start, len));
+		
+		ByteBuffer[] buffers = { ByteBuffer.wrap(record), 
+				ByteBuffer.allocateDirect(record.length), 
+				ByteBuffer.wrap(record).asReadOnlyBuffer() };
+		buffers[1].put(record).clear();
+		for (ByteBuffer b : buffers) {
+			assertEquals(expected, p.parse(b, start, len));
+			assertEquals(0, b.position());
+			
+			b.position(start).limit(start+len);
+			assertEquals(expected, p.parse(b));
+			assertEquals(start, b.position());
+			assertEquals(expected, p.parse(b, true));
+			assertEquals(start+len, b.position());
+			b.clear();
+			
+			assertEquals(expected.getDate(), new Iso8601DateParser().parse(
+					b, start, 10));
+			Iso8601Time t = new Iso8601TimeParser().parse(b, start+10, 
+					len-10);
+			assertEquals(expected.getTime().getHour(), t.getHour());
+		}
+		
+		boolean errExpected = false;
+		try {
+			p.parse("2011-11-11T11:11:1\u00e9".getBytes("UTF-8"), 0, 20);
+		} catch (Iso8601TimeParseException e) {
+			errExpected = true;
+		}
+		assertTrue(errExpected);
+	}
+	
+	@Test
+	public void testParseToEpoch() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		
+		assertEquals(1321009871111L, p.parseToEpochMillis(
+				"2011-11-11T11:11:11.111Z", r));
+		assertEquals(TimePrecision.MILLISECOND, r.getPrecision());
+		assertEquals(0, r.getOffsetMinutes());
+		assertTrue(r.isTimeZoneSpecified());
+		
+		/*
+		 * Same instant, written with an offset, in basic format, and in
+		 * 	week and ordinal dates.
+		 */
+		String[] same = { "2011-11-11T00:11:11.111-11:00", 
+				"20111111T001111,111-1100", "2011-W45-5T00:11:11.111-11:00",
+				"2011-315T00:11:11.111-11" };
+		for (String txt : same) {
+			assertEquals(txt, 1321009871111000000L, 
+					p.parseToEpochNanos(txt, r));
+			assertEquals(-660, r.getOffsetMinutes());
+		}
+		
+		assertEquals(1321029660000L, p.parseToEpochMillis(
+				"2011-11-11T11:11-05:30", r));
+		assertEquals(-330, r.getOffsetMinutes());
+		assertEquals(TimePrecision.MINUTE, r.getPrecision());
+		
+		/*
+		 * 24:00 is the start of the next day; no time zone means UTC.
+		 */
+		assertEquals(p.parseToEpochMillis("2012-01-01T00", r), 
+				p.parseToEpochMillis("2011-12-31T24", r));
+		assertEquals(TimePrecision.HOUR, r.getPrecision());
+		assertFalse(r.isTimeZoneSpecified());
+		
+		/*
+		 * Fractional hours and minutes, and subseconds past nanoseconds.
+		 */
+		assertEquals(1325374200000L, p.parseToEpochMillis("2011-12-31T23.5", 
+				r));
+		assertEquals(TimePrecision.HOUR, r.getPrecision());
+		assertEquals(1325374230000L, p.parseToEpochMillis(
+				"2011-12-31T23:30.5", r));
+		assertEquals(TimePrecision.MINUTE, r.getPrecision());
+		assertEquals(-315619199877L, p.parseToEpochMillis(
+				"1960-01-01T00:00:00.1234567891234Z", r));
+		assertEquals(123456789, r.getNano());
+		assertEquals(TimePrecision.NANOSECOND, r.getPrecision());
+		
+		boolean errExpected = false;
+		try {
+			p.parseToEpochMillis("2011-11T11:11Z", r);
+		} catch (IllegalArgumentException e) {
+			errExpected = true;
+		}
+		assertTrue(errExpected);
+		
+		errExpected = false;
+		try {
+			p.parseToEpochNanos("2300-01-01T00:00Z", r);
+		} catch (IllegalArgumentException e) {
+			errExpected = true;
+		}
+		assertTrue(errExpected);
+	}
+	
+	@Test
+	public void testTryParse() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		
+		String txt = "2011-11-11T11:11:11.111-11:00";
+		assertEquals(p.parse(txt), p.tryParse(txt, r));
+		assertEquals(Iso8601ParseResult.NO_ERROR, r.getErrorCode());
+		assertEquals(-1, r.getErrorIndex());
+		assertTrue(r.isExtended());
+		assertTrue(p.tryParseToEpoch(txt, r));
+		assertEquals(1321049471L, r.getEpochSecond());
+		assertEquals(111000000, r.getNano());
+		
+		/*
+		 * Each kind of error, with the index at which it was found, 
+		 * 	embedded in a larger record.
+		 */
+		Object[][] bad = { 
+				{ "2011-11-11 11:11", Iso8601ParseResult.NO_TIME_DESIGNATOR, 
+					16 },
+				{ "2011-1x-11T11:11", Iso8601ParseResult.DATE_FORMAT, 6 },
+				{ "2011-04-31T11:11", Iso8601ParseResult.DATE_VALUE, 0 },
+				{ "2011-04-30T11:71", Iso8601ParseResult.TIME_FORMAT, 14 },
+				{ "2011-04-30T25:11", Iso8601ParseResult.TIME_FORMAT, 11 },
+				{ "2011-04-30T1111", Iso8601ParseResult.INCONSISTENT_FORMAT, 
+					10 },
+				{ "2011-04T11:11", Iso8601ParseResult.NOT_A_DAY, 0 } };
+		for (Object[] b : bad) {
+			String record = "id=7;" + b[0] + ";";
+			int end = record.length() - 1;
+			assertNull(p.tryParse(record, 5, end, r));
+			assertEquals(b[0].toString(), b[1], r.getErrorCode());
+			assertEquals(b[0].toString(), (Integer)b[2] + 5, 
+					r.getErrorIndex());
+			assertFalse(p.tryParseToEpoch(record, 5, end, r));
+			assertEquals(b[1], r.getErrorCode());
+			
+			boolean errExpected = false;
+			try {
+				p.parse(record, 5, end);
+			} catch (Exception e) {
+				errExpected = true;
+			}
+			assertTrue(errExpected);
+		}
+		
+		Iso8601DateParser dp = new Iso8601DateParser();
+		assertEquals(dp.parse("2011-W52"), dp.tryParse("2011-W52", r));
+		assertNull(dp.tryParse("2011-W53", r));
+		assertEquals(Iso8601ParseResult.DATE_VALUE, r.getErrorCode());
+		assertNull(dp.tryParse("2011-W5", r));
+		assertEquals(Iso8601ParseResult.DATE_FORMAT, r.getErrorCode());
+		
+		Iso8601TimeParser tp = new Iso8601TimeParser();
+		assertNull(tp.tryParse("11:11:11+13", r));
+		assertEquals(Iso8601ParseResult.TIME_FORMAT, r.getErrorCode());
+		assertEquals(9, r.getErrorIndex());
+		
+		assertEquals(0, new Iso8601TimeParseException("x", 
+				false).getStackTrace().length);
+		assertTrue(new Iso8601DateParseException("x", 
+				true).getStackTrace().length > 0);
+	}
+	
+	/*
+	 * One parser shared by many threads, each checking both the parsed value
+	 * 	and the format flags that come back in its own Iso8601ParseResult.
+	 */
+	@Test
+	public void testSharedParser() throws Exception {
+		final Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		final String[] txt = { "2011-11-11T11:11:11.111-11:00",
+				"20111111T111111.111-1100", "2011-W45-5T11:11Z", 
+				"2011315T11" };
+		final Iso8601DateTime[] expected = new Iso8601DateTime[txt.length];
+		for (int i=0; i<txt.length; i++) {
+			expected[i] = p.parse(txt[i]);
+		}
+		
+		assertSharedUse(txt.length, new SharedCheck<Iso8601ParseResult>() {
+			public Iso8601ParseResult newScratch() {
+				return new Iso8601ParseResult();
+			}
+			
+			public boolean passes(int k, Iso8601ParseResult r) 
+					throws Exception {
+				boolean extended = (k == 0 || k == 2);
+				Iso8601DateTime dt = p.parse(txt[k], 0, txt[k].length(), r);
+				return expected[k].equals(dt) && r.isExtended() == extended;
+			}
+		});
+	}
+	
+	/*
+	 * One formatter, shared by many threads, each writing into its own 
+	 * 	buffers.
+	 */
+	@Test
+	public void testSharedFormatter() throws Exception {
+		final Iso8601DateTimeFormatter f = new Iso8601DateTimeFormatter();
+		final String[] txt = { "2011-11-11T11:11:11.111-11:00",
+				"1999-12-31T23:59:59Z", "2011-11-11T11:30-03:30", 
+				"2011-11-11T11:11:11.123456789+05:45" };
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		final Iso8601DateTime[] dts = new Iso8601DateTime[txt.length];
+		for (int i=0; i<txt.length; i++) {
+			dts[i] = p.parse(txt[i]);
+		}
+		
+		assertSharedUse(txt.length, new SharedCheck<char[]>() {
+			public char[] newScratch() {
+				return new char[64];
+			}
+			
+			public boolean passes(int k, char[] c) {
+				int n = f.formatTo(dts[k], c, 0);
+				return txt[k].equals(f.format(dts[k])) && 
+						txt[k].equals(new String(c, 0, n));
+			}
+		});
+	}
+	
+	/*
+	 * One check of an object shared between threads.  S is whatever each 
+	 * 	thread keeps to itself (e.g., a buffer).
+	 */
+	private interface SharedCheck<S> {
+		S newScratch();
+		
+		/*
+		 * Whether case k (0 <= k < the number of cases) comes out right.
+		 */
+		boolean passes(int k, S scratch) throws Exception;
+	}
+	
+	/*
+	 * Runs the check 20,000 times in each of 8 threads at once, each 
+	 * 	thread starting at a different case and with its own scratch, and
+	 * 	fails if any check fails or throws.
+	 */
+	private static <S> void assertSharedUse(final int cases, 
+			final SharedCheck<S> check) throws InterruptedException {
+		final AtomicInteger failures = new AtomicInteger();
+		Thread[] threads = new Thread[8];
+		for (int i=0; i<threads.length; i++) {
+			final int offset = i;
+			threads[i] = new Thread() {
+				public void run() {
+					S scratch = check.newScratch();
+					for (int j=0; j<20000; j++) {
+						try {
+							if (!check.passes((j + offset) % cases, scratch)) {
+								failures.incrementAndGet();
+							}
+						} catch (Exception e) {
+							failures.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(0, failures.get());
+	}
+	
+	@Test
+	public void testCurrentDateTimeRoundTrip() {
+		Iso8601DateTime dt = new Iso8601DateTime();
+		Iso8601DateTimeFormatter f = new Iso8601DateTimeFormatter();
+		String dtTxt = f.format(dt);
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601DateTime dtp = null;
+		String dtTxt2 = null;
+		try {
+			dtp = p.parse(dtTxt);
+			dtTxt2 = f.format(dtp);
+		} catch (Iso8601DateParseException e) {
+			e.printStackTrace();
+			fail();
+		} catch (Iso8601TimeParseException e) {
+			e.printStackTrace();
+			fail();
+		}
+		
+		assertTrue(dt.equals(dtp));
+		assertEquals(dtTxt, dtTxt2);
+		System.out.println(dtTxt);
+	}
+	
+	@Test
+	public void testCalendarOffsets() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		String[] dts = { "2011-07-11T15:30:00-03:30", "2011-07-11T15:30:00-05:00",
+				"2011-07-11T15:30:00+05:45", "2011-07-11T15:30:00+05:07", 
+				"2011-07-11T15:30:00Z", "2011-07-11T15:30:00" };
+		String[] ids = { "GMT-03:30", "GMT-05:00", "GMT+05:45", "GMT+05:07", 
+				"UTC", "UTC" };
+		for (int i=0; i<dts.length; i++) {
+			Calendar c = p.parse(dts[i]).getCalendar();
+			assertEquals(p.parseToEpochMillis(dts[i], r), c.getTimeInMillis());
+			assertEquals(15, c.get(Calendar.HOUR_OF_DAY));
+			assertEquals(0, c.get(Calendar.DST_OFFSET));
+			assertEquals(ids[i], c.getTimeZone().getID());
+			assertFalse(c.getTimeZone().useDaylightTime());
+		}
+		
+		/*
+		 * The calendar is built on first use, and each call gets a copy.
+		 */
+		Iso8601DateTime dt = p.parse(dts[0]);
+		Calendar c1 = dt.getCalendar();
+		c1.add(Calendar.HOUR_OF_DAY, 1);
+		Calendar c2 = dt.getCalendar();
+		assertNotSame(c1, c2);
+		assertEquals(15, c2.get(Calendar.HOUR_OF_DAY));
+		assertEquals(dt.getCalendar(), c2);
+		
+		assertSame(FixedOffsetTimeZones.forOffsetMinutes(-210), 
+				FixedOffsetTimeZones.forOffsetMinutes(-210));
+		assertSame(FixedOffsetTimeZones.forOffsetMinutes(14*60), 
+				FixedOffsetTimeZones.forOffsetMinutes(14*60));
+		
+		GregorianCalendar gc = new GregorianCalendar(
+				TimeZone.getTimeZone("GMT-03:30"));
+		Iso8601Time t = new Iso8601DateTime(gc).getTime();
+		assertEquals(-3, t.getTimeZoneHourOffset());
+		assertEquals(30, t.getTimeZoneMinuteOffset());
+	}
+	
+	@Test
+	public void testOrderingAndHashCode() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		String[] sorted = { "2008-12-31T23:59:59.999Z", "2009-01-01T00:00Z",
+				"2008-12-31T19:00:00-05:00", null, 
+				"2009-01-01T00:00:00Z", "2009-01-01T00:00:00.000Z",
+				"2009-01-01T00:00:00.001Z" };
+		List<Iso8601DateTime> expected = new ArrayList<Iso8601DateTime>();
+		for (String s : sorted) {
+			/*
+			 * The parser does not take leap seconds, so build 23:59:60Z.
+			 */
+			expected.add((s != null) ? p.parse(s) : new Iso8601DateTime(
+					new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 
+							2008, 12, 31), new Iso8601UnitTime(23, 59, 60)));
+		}
+		List<Iso8601DateTime> dts = new ArrayList<Iso8601DateTime>(expected);
+		Collections.reverse(dts);
+		Collections.sort(dts);
+		assertEquals(expected, dts);
+		
+		Collections.sort(dts, Iso8601DateTime.instantOrder(false));
+		assertEquals(expected.get(5), dts.get(1));
+		assertEquals(expected.get(1), dts.get(5));
+		
+		Iso8601DateTime ymd = p.parse("2011-11-11T11:11Z");
+		Iso8601DateTime ywd = p.parse("2011-W45-5T11:11Z");
+		assertEquals(ymd, ywd);
+		assertEquals(ymd.hashCode(), ywd.hashCode());
+		assertEquals(0, ymd.compareTo(ywd));
+		HashSet<Iso8601DateTime> set = new HashSet<Iso8601DateTime>(dts);
+		set.add(ymd);
+		set.add(ywd);
+		assertEquals(sorted.length + 1, set.size());
+	}
+	
+	@Test
+	public void testEpochAccessors() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		String[] dts = { "2011-11-11T11:11:11.111-11:00", "1969-12-31T23:59:59.999Z",
+				"1600-02-29T12:00:00+05:30", "2011-W45-5T11:11Z", 
+				"2011-315T23:59:59.123456789+12:00", "2011-11-11T11.5",
+				"2011-11-11T24:00:00Z", "2011-11-11T11:30-03:30" };
+		for (String s : dts) {
+			Iso8601DateTime dt = p.parse(s);
+			if (dt.getTime() instanceof Iso8601UnitTime) {
+				assertEquals(s, dt.getCalendar().getTimeInMillis(), 
+						dt.toEpochMillis());
+			}
+			assertEquals(s, p.parseToEpochMillis(s, r), dt.toEpochMillis());
+			assertEquals(s, r.getEpochSecond(), dt.toEpochSecond());
+			assertEquals(s, r.getNano(), dt.getNano());
+			assertEquals(s, dt.getDate().getIntervalStartEpochDay(), 
+					dt.toEpochDay());
+		}
+		
+		Iso8601DateTime leap = new Iso8601DateTime(new Iso8601Date(
+				DateConfiguration.YEAR_MONTH_DAY, 2008, 12, 31), 
+				new Iso8601UnitTime(23, 59, 60));
+		assertEquals(1230768000L, leap.toEpochSecond());
+		assertEquals(14244L, leap.toEpochDay());
+	}
+	
+	@Test
+	public void testFormatTo() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601DateTimeFormatter f = new Iso8601DateTimeFormatter();
+		String[] dts = { "2011-11-11T11:11:11.111-11:00", "1044-03-15T12Z",
+				"2011-11-11T11:30-03:30", "2011-11-11T11:11:11.000123456+05:45" };
+		char[] c = new char[64];
+		byte[] b = new byte[64];
+		StringBuilder sb = new StringBuilder("x");
+		for (String s : dts) {
+			Iso8601DateTime dt = p.parse(s);
+			String txt = f.format(dt);
+			assertEquals(s, txt);
+			assertEquals(txt.length(), f.formatTo(dt, c, 3));
+			assertEquals(txt, new String(c, 3, txt.length()));
+			assertEquals(txt.length(), f.formatTo(dt, b, 5));
+			assertEquals(txt, new String(b, 5, txt.length(), "US-ASCII"));
+			sb.setLength(1);
+			assertEquals(txt.length(), f.formatTo(dt, sb));
+			assertEquals("x" + txt, sb.toString());
+		}
+		
+		Iso8601DateTime dt = p.parse(dts[0]);
+		try {
+			f.formatTo(dt, new char[10], 0);
+			fail();
+		} catch (ArrayIndexOutOfBoundsException e) {
+		}
+	}
+}
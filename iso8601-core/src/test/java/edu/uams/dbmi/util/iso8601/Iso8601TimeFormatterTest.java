@@ -27,6 +27,9 @@ public class Iso8601TimeFormatterTest extends TestCase {
 	public void testFormatUnitTime() {
 		testSet("15", "33", "22", ".123456789", "+05", "00");
 		testSet("15", "33", "22", ".00010000", "-04", "30");
+		testSet("00", "00", "00", ".000", "-12", "00");
+		testSet("23", "59", "59", ".05", "+14", "00");
+		testSet("09", "05", "07", ".999999", "+09", "30");
 	}
 
 	private void testSet(String hrTxt, String miTxt, String seTxt, 
@@ -114,8 +117,7 @@ public class Iso8601TimeFormatterTest extends TestCase {
 
 		BigDecimal bd = new BigDecimal(frTxt);
 		tb.setSubsecond(bd.unscaledValue().intValue());
-		long unitDivisor = BigDecimal.TEN.pow(bd.scale()).longValue();
-		tb.setUnit(TimeUnit.SECOND.divide(unitDivisor));
+		tb.setPrecision((byte)bd.scale());
 		testConfigurations(new Iso8601UnitTime(tb), basicHrMinSecSs,
 				extendedHrMinSecSs);
 	}
@@ -285,8 +287,7 @@ public class Iso8601TimeFormatterTest extends TestCase {
 		tb.setSecond(Integer.parseInt(seTxt));
 		BigDecimal bd = new BigDecimal(frTxt);
 		tb.setSubsecond(bd.unscaledValue().intValue());
-		long unitDivisor = BigDecimal.TEN.pow(bd.scale()).longValue();
-		tb.setUnit(TimeUnit.SECOND.divide(unitDivisor));
+		tb.setPrecision((byte)bd.scale());
 		
 		Iso8601UnitTime t1 = new Iso8601UnitTime(tb);
 		Iso8601TimeFormatter tf1 = new Iso8601TimeFormatter(fo);
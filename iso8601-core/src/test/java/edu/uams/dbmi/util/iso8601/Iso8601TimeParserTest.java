@@ -14,6 +14,8 @@
   */
 package edu.uams.dbmi.util.iso8601;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import junit.framework.TestCase;
@@ -31,6 +33,70 @@ public class Iso8601TimeParserTest extends TestCase {
 		testSet(p, "19", "40", "17", ".999999999", "-06", "00");
 	}
 	
+	/*
+	 * Differential test of the state machine in parse() against the 
+	 * 	original regular expression implementation, parseWithRegex(), over
+	 * 	random strings built from the pieces that make up ISO 8601 times.
+	 */
+	@Test
+	public void testParserMatchesRegexReference() {
+		String[] pieces = { "T", "00", "09", "12", "23", "24", "25", "30", 
+				"59", "60", "0", "5", "00", "00", ":", ":", ".", ",", "Z", 
+				"+", "-", "01", "12", "13", "45", "000", "123", "999999999" };
+		Random rnd = new Random(8601);
+		Iso8601TimeParser p = new Iso8601TimeParser();
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		for (int i=0; i<200000; i++) {
+			StringBuilder sb = new StringBuilder();
+			int n = 1 + rnd.nextInt(8);
+			for (int j=0; j<n; j++) {
+				sb.append(pieces[rnd.nextInt(pieces.length)]);
+			}
+			String s = sb.toString();
+			
+			String expected, actual;
+			try {
+				expected = describe(p.parseWithRegex(s, r), r);
+			} catch (Exception e) {
+				expected = e.getClass().getName();
+			}
+			try {
+				actual = describe(p.parse(s, 0, s.length(), r), r);
+			} catch (Exception e) {
+				actual = e.getClass().getName();
+			}
+			assertEquals(s, expected, actual);
+		}
+	}
+	
+	private String describe(Iso8601Time t, Iso8601ParseResult r) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(t.getHour());
+		if (t instanceof Iso8601UnitTime) {
+			Iso8601UnitTime tu = (Iso8601UnitTime)t;
+			sb.append(' ').append(tu.getPrecision());
+			if (tu.getPrecision() != TimePrecision.HOUR) {
+				sb.append(' ').append(t.getMinute());
+			}
+			sb.append(' ').append(tu.getSecond());
+			sb.append(' ').append(tu.getSubsecond());
+		} else {
+			Iso8601FractionalTime tf = (Iso8601FractionalTime)t;
+			if (tf.getFractionalMinute() != null) {
+				sb.append(' ').append(t.getMinute());
+			}
+			sb.append(' ').append(tf.getFractionalHour());
+			sb.append(' ').append(tf.getFractionalMinute());
+		}
+		sb.append(' ').append(t.isTimeZoneSpecified());
+		sb.append(' ').append(t.isUtcTimeZone());
+		sb.append(' ').append(t.getTimeZoneHourOffset());
+		sb.append(' ').append(t.getTimeZoneMinuteOffset());
+		sb.append(' ').append(r.isExtended());
+		sb.append(' ').append(r.isExtendedConsistent());
+		return sb.toString();
+	}
+	
 	public void testSet(Iso8601TimeParser p, String hrTxt, String miTxt,
 			String seTxt, String frTxt, String tzHrTxt, String tzMinTxt) {
 		int hr = Integer.parseInt(hrTxt);
@@ -326,9 +392,9 @@ public class Iso8601TimeParserTest extends TestCase {
 	private void testSecondFraction(Iso8601Time t, int hr, int mi, int se,
 			double fr, boolean isUtc, Integer tzHour, Integer tzMin) {
 		Iso8601UnitTime tu = (Iso8601UnitTime)t;
-		assertFalse(tu.getUnit().equals(TimeUnit.HOUR));
-		assertFalse(tu.getUnit().equals(TimeUnit.MINUTE));		
-		assertFalse(tu.getUnit().equals(TimeUnit.SECOND));
+		assertFalse(tu.getPrecision() == TimePrecision.HOUR);
+		assertFalse(tu.getPrecision() == TimePrecision.MINUTE);		
+		assertFalse(tu.getPrecision() == TimePrecision.SECOND);
 		assertEquals(t.getHour(), hr);
 		assertEquals(t.getMinute(), mi);
 		assertEquals(tu.getSecond().intValue(), se);
@@ -577,9 +643,9 @@ public class Iso8601TimeParserTest extends TestCase {
 	public void testHour(Iso8601Time t, int hr, boolean isUtc, Integer tzHour,
 			Integer tzMin) {
 		Iso8601UnitTime tu = (Iso8601UnitTime)t;
-		assertTrue(tu.getUnit().equals(TimeUnit.HOUR));
-		assertFalse(tu.getUnit().equals(TimeUnit.MINUTE));		
-		assertFalse(tu.getUnit().equals(TimeUnit.SECOND));
+		assertTrue(tu.getPrecision() == TimePrecision.HOUR);
+		assertFalse(tu.getPrecision() == TimePrecision.MINUTE);		
+		assertFalse(tu.getPrecision() == TimePrecision.SECOND);
 		assertEquals(t.getHour(), hr);
 		
 		if (t.isTimeZoneSpecified() && isUtc) assertTrue(t.isUtcTimeZone());
@@ -599,9 +665,9 @@ public class Iso8601TimeParserTest extends TestCase {
 	public void testMinute(Iso8601Time t, int hr, int min, boolean isUtc,
 			Integer tzHour, Integer tzMin) {
 		Iso8601UnitTime tu = (Iso8601UnitTime)t;
-		assertFalse(tu.getUnit().equals(TimeUnit.HOUR));
-		assertTrue(tu.getUnit().equals(TimeUnit.MINUTE));		
-		assertFalse(tu.getUnit().equals(TimeUnit.SECOND));
+		assertFalse(tu.getPrecision() == TimePrecision.HOUR);
+		assertTrue(tu.getPrecision() == TimePrecision.MINUTE);		
+		assertFalse(tu.getPrecision() == TimePrecision.SECOND);
 		assertEquals(t.getHour(), hr);
 		assertEquals(t.getMinute(), min);
 		
@@ -622,9 +688,9 @@ public class Iso8601TimeParserTest extends TestCase {
 	public void testSecond(Iso8601Time t, int hr, int min, int sec, 
 			boolean isUtc, Integer tzHour, Integer tzMin) {
 		Iso8601UnitTime tu = (Iso8601UnitTime)t;
-		assertFalse(tu.getUnit().equals(TimeUnit.HOUR));
-		assertFalse(tu.getUnit().equals(TimeUnit.MINUTE));		
-		assertTrue(tu.getUnit().equals(TimeUnit.SECOND));
+		assertFalse(tu.getPrecision() == TimePrecision.HOUR);
+		assertFalse(tu.getPrecision() == TimePrecision.MINUTE);		
+		assertTrue(tu.getPrecision() == TimePrecision.SECOND);
 		assertEquals(t.getHour(), hr);
 		assertEquals(t.getMinute(), min);
 		assertEquals(tu.getSecond().intValue(), sec);
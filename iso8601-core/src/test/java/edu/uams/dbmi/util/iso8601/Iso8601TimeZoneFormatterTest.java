@@ -156,4 +156,55 @@ public class Iso8601TimeZoneFormatterTest extends TestCase {
 	}
 	
 	
+	
+	@Test
+	public void testOffsetTable() throws Exception {
+		boolean[] tf = { true, false };
+		for (boolean extended : tf) {
+			for (boolean includeMinutes : tf) {
+				Iso8601TimeZoneFormatter.FormatOptions fo = 
+						new Iso8601TimeZoneFormatter.FormatOptions(extended, 
+								includeMinutes);
+				for (int hr=-24; hr<=24; hr++) {
+					for (int min=0; min<60; min+=5) {
+						String expected = ((hr < 0) ? "-" : "+") + 
+								((Math.abs(hr) < 10) ? "0" : "") + Math.abs(hr);
+						if (includeMinutes || min != 0) {
+							expected += ((extended) ? ":" : "") + 
+									((min < 10) ? "0" : "") + min;
+						}
+						String tz = Iso8601TimeZoneFormatter.formatTimeZone(hr, 
+								min, fo);
+						assertEquals(expected, tz);
+						if (hr >= -12 && hr <= 14 && min % 15 == 0 && 
+								((hr > -12 && hr < 14) || min == 0)) {
+							assertSame(tz, Iso8601TimeZoneFormatter.formatTimeZone(
+									hr, min, fo));
+						}
+					}
+				}
+				
+				/*
+				 * Out of range minutes throw, even where the offset they 
+				 * 	add up to is on the grid.
+				 */
+				int[][] bad = { { 5, -15 }, { 0, -15 }, { -3, -30 }, 
+						{ 5, 75 }, { -5, 60 }, { 25, 0 }, { -25, 0 } };
+				for (int[] b : bad) {
+					try {
+						Iso8601TimeZoneFormatter.formatTimeZone(b[0], b[1], fo);
+						fail(b[0] + " " + b[1]);
+					} catch (IllegalArgumentException e) {
+					}
+					try {
+						Iso8601TimeZoneFormatter.writeTimeZone(
+								new StringBuilder(), 0, b[0], b[1], extended, 
+								includeMinutes);
+						fail(b[0] + " " + b[1]);
+					} catch (IllegalArgumentException e) {
+					}
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,186 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import junit.framework.TestCase;
+
+public class Iso8601UnitTimeTest extends TestCase {
+	@Test
+	public void testInitialization() {
+		Iso8601UnitTime ut1 = new Iso8601UnitTime(12);
+		checkHour(ut1, 12);
+		
+		Iso8601UnitTime ut2 = new Iso8601UnitTime(0);
+		checkHour(ut2, 0);
+		
+		Iso8601UnitTime ut3 = new Iso8601UnitTime(24);
+		checkHour(ut3, 24);
+		
+		int min = 20;
+		Iso8601UnitTime ut4 = new Iso8601UnitTime(0, min);
+		checkUnitValue(ut4, min, TimePrecision.MINUTE);
+		checkMinute(ut4, 0, min);
+	}
+	
+	private void checkHour(Iso8601UnitTime t, int hr) {
+		checkUnitValue(t, hr, TimePrecision.HOUR);
+		IsoUnitTimeBuilder b = new IsoUnitTimeBuilder(hr);
+		t = new Iso8601UnitTime(b);
+		checkUnitValue(t, hr, TimePrecision.HOUR);
+	}
+	
+	private void checkMinute(Iso8601UnitTime t, int hr, int min) {
+		assertEquals(t.getHour(), hr);
+		checkUnitValue(t, min, TimePrecision.MINUTE);
+		IsoUnitTimeBuilder b = new IsoUnitTimeBuilder(hr);
+		b.setMinute(min);
+		t = new Iso8601UnitTime(b);
+		assertEquals(t.getHour(), hr);
+		checkUnitValue(t, min, TimePrecision.MINUTE);
+	}
+
+	private void checkUnitValue(Iso8601UnitTime ut1, int i, byte p) {
+		assertEquals(ut1.getPrecision(), p);
+		if (p == TimePrecision.HOUR) {
+			assertEquals(i, ut1.getHour());
+		} else if (p == TimePrecision.MINUTE) {
+			assertEquals(i, ut1.getMinute());
+		} else if (p == TimePrecision.SECOND) {
+			assertEquals(i, ut1.getSecond().intValue());
+		} else {
+			assertEquals(i, ut1.getSubsecond().intValue());
+		}
+	}
+	
+	@Test
+	public void testTimeZoneInfoForTimezonlessDateTime() {
+		Iso8601Date d = new Iso8601Date(Iso8601Date.DateConfiguration.YEAR_MONTH_DAY, 2017, 01, 01);
+		Iso8601UnitTime t = new Iso8601UnitTime(12, 00);
+		
+		Iso8601DateTime dt = new Iso8601DateTime(d, t);
+		System.out.println(dt.getTime().getTimeZoneHourOffset());
+		System.out.println(dt.getTime().getTimeZoneMinuteOffset());
+	}
+	
+	@Test
+	public void testEqualsAndHashCode() {
+		HashSet<Iso8601Time> times = new HashSet<Iso8601Time>();
+		IsoUnitTimeBuilder b = new IsoUnitTimeBuilder(23);
+		b.setMinute(59);
+		b.setSecond(59);
+		b.setPrecision(TimePrecision.MILLISECOND);
+		b.setSubsecond(999);
+		b.setTimeZoneOffsetHour(-5);
+		b.setTimeZoneOffsetMinute(30);
+		times.add(new Iso8601UnitTime(b));
+		times.add(new Iso8601FractionalTime(12, 30, 0.5));
+		
+		Iso8601UnitTime t = new Iso8601UnitTime(b);
+		assertTrue(times.contains(t));
+		assertTrue(times.contains(new Iso8601FractionalTime(12, 30, 0.5)));
+		assertFalse(times.contains(new Iso8601FractionalTime(12, 30, 0.25)));
+		assertFalse(times.contains(new Iso8601UnitTime(23, 59, 59)));
+		
+		b.setTimeZoneOffsetHour(5);
+		assertFalse(t.equals(new Iso8601UnitTime(b)));
+	}
+	
+	@Test
+	public void testAbsentFields() {
+		Iso8601UnitTime t = new Iso8601UnitTime(12);
+		assertFalse(t.hasMinute());
+		assertFalse(t.hasSecond());
+		assertNull(t.getSecond());
+		boolean err = false;
+		try {
+			t.getMinute();
+		} catch (IllegalStateException ise) {
+			err = true;
+		}
+		assertTrue(err);
+		
+		t = new Iso8601UnitTime(12, 0, 0);
+		assertTrue(t.hasMinute());
+		assertTrue(t.hasSecond());
+		assertEquals(0, t.getMinute());
+		assertEquals(0, t.getSecond().intValue());
+	}
+	
+	@Test
+	public void testHour24IsNotModified() {
+		Iso8601Date d = new Iso8601Date(
+				Iso8601Date.DateConfiguration.YEAR_MONTH_DAY, 2011, 12, 31);
+		Iso8601UnitTime t = new Iso8601UnitTime(24, 0, 0);
+		Iso8601DateTime dt = new Iso8601DateTime(d, t);
+		
+		assertEquals(24, t.getHour());
+		assertEquals(2011, d.getYear());
+		assertEquals(0, dt.getTime().getHour());
+		assertEquals(2012, dt.getDate().getYear());
+		assertEquals(1, dt.getDate().getDayOfYear());
+		assertEquals(new Iso8601UnitTime(0, 0, 0), dt.getTime());
+	}
+	
+	@Test
+	public void testPrecision() throws Iso8601TimeParseException {
+		Iso8601UnitTime t = new Iso8601UnitTime(12, 30, 15, 
+				TimePrecision.MICROSECOND, 1500);
+		assertEquals(TimePrecision.MICROSECOND, t.getPrecision());
+		assertEquals(TimePrecision.HOUR, new Iso8601UnitTime(3).getPrecision());
+		
+		boolean err = false;
+		try {
+			new Iso8601UnitTime(12, 30, 15, TimePrecision.MILLISECOND, 1000);
+		} catch (IllegalArgumentException iae) {
+			err = true;
+		}
+		assertTrue(err);
+		
+		Iso8601TimeParser p = new Iso8601TimeParser();
+		Iso8601UnitTime parsed = (Iso8601UnitTime)p.parse(
+				"12:30:15.123456789987");
+		assertEquals(TimePrecision.NANOSECOND, parsed.getPrecision());
+		assertEquals(123456789, parsed.getSubsecond().intValue());
+	}
+	
+	@Test
+	public void testOrdering() {
+		Iso8601Time a = new Iso8601FractionalTime(11, 0.5);
+		Iso8601Time b = new Iso8601UnitTime(12);
+		IsoUnitTimeBuilder tb = new IsoUnitTimeBuilder(7);
+		tb.setMinute(0);
+		tb.setTimeZoneOffsetHour(-5);
+		Iso8601Time c = new Iso8601UnitTime(tb);
+		Iso8601Time d = new Iso8601UnitTime(12, 0);
+		Iso8601Time e = new Iso8601UnitTime(12, 0, 0);
+		Iso8601Time f = new Iso8601UnitTime(12, 0, 0, 
+				TimePrecision.DECISECOND, 5);
+		
+		List<Iso8601Time> times = Arrays.asList(f, d, a, e, c, b);
+		Collections.sort(times);
+		assertEquals(Arrays.asList(a, b, c, d, e, f), times);
+		Collections.sort(times, Iso8601Time.instantOrder(false));
+		assertEquals(Arrays.asList(a, e, c, d, b, f), times);
+		
+		assertEquals(0, new Iso8601UnitTime(12, 0).compareTo(d));
+		assertTrue(new Iso8601FractionalTime(12, 0, 0.0).compareTo(d) > 0);
+	}
+}
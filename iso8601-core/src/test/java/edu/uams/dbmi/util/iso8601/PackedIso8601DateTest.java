@@ -0,0 +1,168 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import org.junit.Test;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+import junit.framework.TestCase;
+
+public class PackedIso8601DateTest extends TestCase {
+	
+	@Test
+	public void testRoundTrip() {
+		Iso8601Date[] dates = new Iso8601Date[] {
+			new Iso8601Date(DateConfiguration.CENTURY, 19),
+			new Iso8601Date(DateConfiguration.CENTURY, -3),
+			new Iso8601Date(DateConfiguration.YEAR, 1985),
+			new Iso8601Date(DateConfiguration.YEAR, -44),
+			new Iso8601Date(DateConfiguration.YEAR_MONTH, 1985, 4),
+			new Iso8601Date(DateConfiguration.YEAR_WEEK, 2009, 1),
+			new Iso8601Date(DateConfiguration.YEAR_WEEK, 2009, 53),
+			new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 1985, 4, 12),
+			new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, -1, 2, 29),
+			new Iso8601Date(DateConfiguration.YEAR_WEEK_DAY, 2009, 1, 1),
+			new Iso8601Date(DateConfiguration.YEAR_WEEK_DAY, 2009, 53, 7),
+			new Iso8601Date(DateConfiguration.YEAR_DAY_OF_YEAR, 2008, 366),
+			new Iso8601Date(DateConfiguration.YEAR_DAY_OF_YEAR, 
+					Integer.MAX_VALUE, 1)
+		};
+		
+		for (Iso8601Date d : dates) {
+			long p = PackedIso8601Date.pack(d);
+			assertTrue(PackedIso8601Date.isValid(p));
+			assertEquals(d.configuration, PackedIso8601Date.getConfiguration(p));
+			Iso8601Date d2 = PackedIso8601Date.toDate(p);
+			assertEquals(d, d2);
+			assertEquals(d.configuration, d2.configuration);
+			assertEquals(p, PackedIso8601Date.pack(d2));
+			
+			assertEquals(d.isCentury(), PackedIso8601Date.isCentury(p));
+			assertEquals(d.isYear(), PackedIso8601Date.isYear(p));
+			assertEquals(d.isMonth(), PackedIso8601Date.isMonth(p));
+			assertEquals(d.isWeek(), PackedIso8601Date.isWeek(p));
+			assertEquals(d.isDay(), PackedIso8601Date.isDay(p));
+			assertEquals(d.getCentury(), PackedIso8601Date.getCentury(p));
+			assertEquals(d.epochDay, 
+					PackedIso8601Date.getIntervalStartEpochDay(p));
+			if (!d.isCentury()) {
+				assertEquals(d.getYear(), PackedIso8601Date.getYear(p));
+				assertEquals(d.getWeekCalendarYear(), 
+						PackedIso8601Date.getWeekCalendarYear(p));
+			}
+			if (d.isDay()) {
+				assertEquals(d.getMonth(), PackedIso8601Date.getMonth(p));
+				assertEquals(d.getDayOfMonth(), 
+						PackedIso8601Date.getDayOfMonth(p));
+				assertEquals(d.getDayOfWeek(), 
+						PackedIso8601Date.getDayOfWeek(p));
+				assertEquals(d.getDayOfYear(), 
+						PackedIso8601Date.getDayOfYear(p));
+				assertEquals(d.getWeekOfYear(), 
+						PackedIso8601Date.getWeekOfYear(p));
+			}
+		}
+	}
+	
+	@Test
+	public void testAccessors() {
+		long p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR_WEEK_DAY, 2009, 1, 1));
+		assertEquals(2008, PackedIso8601Date.getYear(p));
+		assertEquals(2009, PackedIso8601Date.getWeekCalendarYear(p));
+		assertEquals(12, PackedIso8601Date.getMonth(p));
+		assertEquals(29, PackedIso8601Date.getDayOfMonth(p));
+		assertEquals(364, PackedIso8601Date.getDayOfYear(p));
+		
+		p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR_MONTH_DAY, 1985, 4, 12));
+		assertEquals(5, PackedIso8601Date.getDayOfWeek(p));
+		assertEquals(15, PackedIso8601Date.getWeekOfYear(p));
+		assertEquals(102, PackedIso8601Date.getDayOfYear(p));
+		
+		p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR_WEEK, 2009, 1));
+		boolean err = false;
+		try {
+			PackedIso8601Date.getMonth(p);
+		} catch (IllegalStateException ise) {
+			err = true;
+		}
+		assertTrue(err);
+		
+		err = false;
+		try {
+			PackedIso8601Date.getDayOfWeek(p);
+		} catch (IllegalStateException ise) {
+			err = true;
+		}
+		assertTrue(err);
+	}
+	
+	@Test
+	public void testInterval() {
+		/*
+		 * 1970-01-01 is epoch day 0.
+		 */
+		long p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR, 1970));
+		assertEquals(0, PackedIso8601Date.getIntervalStartEpochDay(p));
+		assertEquals(364, PackedIso8601Date.getIntervalEndEpochDay(p));
+		
+		p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.CENTURY, 19));
+		assertEquals(-25567, PackedIso8601Date.getIntervalStartEpochDay(p));
+		assertEquals(10956, PackedIso8601Date.getIntervalEndEpochDay(p));
+		
+		p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR_MONTH, 2000, 2));
+		assertEquals(10988, PackedIso8601Date.getIntervalStartEpochDay(p));
+		assertEquals(11016, PackedIso8601Date.getIntervalEndEpochDay(p));
+		
+		p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR_MONTH, 1999, 12));
+		assertEquals(10956, PackedIso8601Date.getIntervalEndEpochDay(p));
+		
+		/*
+		 * 1970-W01 runs from Monday, December 29, 1969 to January 4, 1970.
+		 */
+		p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR_WEEK, 1970, 1));
+		assertEquals(-3, PackedIso8601Date.getIntervalStartEpochDay(p));
+		assertEquals(3, PackedIso8601Date.getIntervalEndEpochDay(p));
+		
+		p = PackedIso8601Date.pack(
+				new Iso8601Date(DateConfiguration.YEAR_DAY_OF_YEAR, 1970, 32));
+		assertEquals(31, PackedIso8601Date.getIntervalStartEpochDay(p));
+		assertEquals(31, PackedIso8601Date.getIntervalEndEpochDay(p));
+	}
+	
+	@Test
+	public void testInvalid() {
+		assertFalse(PackedIso8601Date.isValid(-1L));
+		assertFalse(PackedIso8601Date.isValid(Iso8601DateParser.pack(
+				DateConfiguration.YEAR_MONTH, 2000, 13, 0, false)));
+		assertFalse(PackedIso8601Date.isValid(Iso8601DateParser.pack(
+				DateConfiguration.YEAR_WEEK, 2010, 53, 0, false)));
+		boolean err = false;
+		try {
+			PackedIso8601Date.toDate(-1L);
+		} catch (IllegalArgumentException iae) {
+			err = true;
+		}
+		assertTrue(err);
+	}
+}
@@ -0,0 +1,130 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import org.junit.Test;
+
+import edu.uams.dbmi.util.iso8601.Iso8601Date.DateConfiguration;
+
+import junit.framework.TestCase;
+
+public class PackedIso8601DateTimeTest extends TestCase {
+	
+	String[] dateTimes = { "2011-11-11T11:11:11.111Z", "20111111T001111-1100",
+			"2011-W45-5T11:11+05:30", "2011-315T11:11:11.123456789+05:45",
+			"1985-04-12T10:15:30", "1500-01-01T00Z", "2011-12-31T24:00Z",
+			"2012-02-29T23:59:59.0001+12:00", "0044-03-15T12:00:00.5-12:00" };
+	
+	@Test
+	public void testRoundTrip() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		Iso8601ParseResult r = new Iso8601ParseResult();
+		long[] packed = new long[2*dateTimes.length];
+		for (int i=0; i<dateTimes.length; i++) {
+			Iso8601DateTime dt = p.parse(dateTimes[i]);
+			PackedIso8601DateTime.pack(dt, packed, 2*i);
+			
+			Iso8601DateTime dt2 = PackedIso8601DateTime.toDateTime(packed, 2*i);
+			assertEquals(dateTimes[i], dt, dt2);
+			assertEquals(dt.getDate().configuration, 
+					dt2.getDate().configuration);
+			assertEquals(dt.getTime().isTimeZoneSpecified(), 
+					dt2.getTime().isTimeZoneSpecified());
+			assertEquals(dt.getTime().isUtcTimeZone(), 
+					dt2.getTime().isUtcTimeZone());
+			
+			long[] again = new long[2];
+			PackedIso8601DateTime.pack(dt2, again, 0);
+			assertEquals(packed[2*i], again[0]);
+			assertEquals(packed[2*i + 1], again[1]);
+			
+			/*
+			 * The instant and attributes agree with the parser's.
+			 */
+			long millis = p.parseToEpochMillis(dateTimes[i], r);
+			long attributes = packed[2*i + 1];
+			assertEquals(r.getEpochSecond(), packed[2*i]);
+			assertEquals(r.getNano(), PackedIso8601DateTime.getNano(attributes));
+			assertEquals(r.getPrecision(), 
+					PackedIso8601DateTime.getPrecision(attributes));
+			assertEquals(r.getOffsetMinutes(), 
+					PackedIso8601DateTime.getOffsetMinutes(attributes));
+			assertEquals(r.isTimeZoneSpecified(), 
+					PackedIso8601DateTime.isTimeZoneSpecified(attributes));
+			assertEquals(millis, PackedIso8601DateTime.toEpochMillis(
+					packed[2*i], attributes));
+		}
+		
+		long attributes = packed[3];
+		assertEquals(-660, PackedIso8601DateTime.getOffsetMinutes(attributes));
+		assertFalse(PackedIso8601DateTime.isUtcTimeZone(attributes));
+		assertTrue(PackedIso8601DateTime.isUtcTimeZone(packed[1]));
+		assertEquals(DateConfiguration.YEAR_WEEK_DAY, 
+				PackedIso8601DateTime.getDateConfiguration(packed[5]));
+		assertEquals(TimePrecision.NANOSECOND, 
+				PackedIso8601DateTime.getPrecision(packed[7]));
+		assertFalse(PackedIso8601DateTime.isTimeZoneSpecified(packed[9]));
+		assertEquals(TimePrecision.HOUR, 
+				PackedIso8601DateTime.getPrecision(packed[11]));
+		/*
+		 * 2011-12-31T24:00 is 2012-01-01, 59 days before 2012-02-29.
+		 */
+		assertEquals(PackedIso8601DateTime.getLocalEpochDay(packed[12], 
+				packed[13]), PackedIso8601DateTime.getLocalEpochDay(
+						packed[14], packed[15]) - 59);
+	}
+	
+	@Test
+	public void testFractionalAndLeapSecond() throws Exception {
+		Iso8601DateTimeParser p = new Iso8601DateTimeParser();
+		long[] packed = new long[2];
+		
+		Iso8601DateTime dt = p.parse("2011-11-11T11.25+01");
+		PackedIso8601DateTime.pack(dt, packed, 0);
+		assertTrue(PackedIso8601DateTime.isFractional(packed[1]));
+		assertEquals(TimePrecision.HOUR, 
+				PackedIso8601DateTime.getPrecision(packed[1]));
+		Iso8601DateTime dt2 = PackedIso8601DateTime.toDateTime(packed, 0);
+		assertEquals(dt.getDate(), dt2.getDate());
+		Iso8601FractionalTime ft = (Iso8601FractionalTime)dt2.getTime();
+		assertEquals(11, ft.getHour());
+		assertEquals(0.25, ft.getFractionalHour().doubleValue());
+		assertEquals(1, ft.getTimeZoneHourOffset());
+		
+		dt = p.parse("20111111T1111.123456789");
+		PackedIso8601DateTime.pack(dt, packed, 0);
+		assertEquals(TimePrecision.MINUTE, 
+				PackedIso8601DateTime.getPrecision(packed[1]));
+		ft = (Iso8601FractionalTime)PackedIso8601DateTime.toDateTime(
+				packed, 0).getTime();
+		assertEquals(11, ft.getMinute());
+		assertEquals(0.123456789, ft.getFractionalMinute().doubleValue());
+		
+		IsoUnitTimeBuilder tb = new IsoUnitTimeBuilder(23);
+		tb.setMinute(59);
+		tb.setSecond(60);
+		tb.setIsUtc(true);
+		dt = new Iso8601DateTime(new Iso8601Date(
+				DateConfiguration.YEAR_MONTH_DAY, 2008, 12, 31), 
+				new Iso8601UnitTime(tb));
+		PackedIso8601DateTime.pack(dt, packed, 0);
+		assertTrue(PackedIso8601DateTime.isLeapSecond(packed[1]));
+		assertEquals(1230767999L, packed[0]);
+		dt2 = PackedIso8601DateTime.toDateTime(packed[0], packed[1]);
+		assertEquals(dt, dt2);
+		assertEquals(60, 
+				((Iso8601UnitTime)dt2.getTime()).getSecond().intValue());
+	}
+}
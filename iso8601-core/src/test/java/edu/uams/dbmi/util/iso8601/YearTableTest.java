@@ -0,0 +1,70 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import org.junit.Test;
+import junit.framework.TestCase;
+
+public class YearTableTest extends TestCase {
+	@Test
+	public void testTableMatchesArithmetic() {
+		assertTrue(YearTable.covers(YearTable.DEFAULT_MIN_YEAR));
+		assertTrue(YearTable.covers(YearTable.DEFAULT_MAX_YEAR));
+		assertFalse(YearTable.covers(YearTable.DEFAULT_MAX_YEAR + 1));
+		
+		/*
+		 * Twice, so the second pass reads what the first filled in, and 
+		 * 	past both ends of the table into the arithmetic.
+		 */
+		for (int pass=0; pass<2; pass++) {
+			for (long y=YearTable.MIN_YEAR - 50; y<=YearTable.MAX_YEAR + 50; 
+					y++) {
+				assertEquals(EpochArithmetic.civilEpochDay(y, 1, 1), 
+						YearTable.januaryFirst(y));
+				assertEquals(EpochArithmetic.civilWeekOneDayOne(y), 
+						YearTable.weekOneDayOne(y));
+				assertEquals(EpochArithmetic.civilIsLeapYear(y), 
+						YearTable.isLeapYear(y));
+				assertEquals(EpochArithmetic.civilWeekOneDayOne(y + 1) - 
+						EpochArithmetic.civilWeekOneDayOne(y) == 371, 
+						YearTable.is53WeekYear(y));
+				for (int m=1; m<=12; m++) {
+					assertEquals(EpochArithmetic.civilEpochDay(y, m, 28), 
+							YearTable.epochDay(y, m, 28));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void testKnownYears() {
+		int[] weeks53 = { 1976, 2004, 2009, 2015, 2020, 2026 };
+		for (int y : weeks53) {
+			assertTrue(Iso8601Date.is53WeekYear(y));
+			assertFalse(Iso8601Date.is53WeekYear(y + 1));
+		}
+		assertTrue(Iso8601Date.isLeapYear(-4));
+		assertFalse(Iso8601Date.isLeapYear(-100));
+		
+		/*
+		 * 2009-W01-1 is 2008-12-29, and February 30th is March 1st or 2nd.
+		 */
+		assertEquals(14242L, Iso8601Date.getIsoWeekOneDayOneEpochDayForYear(2009));
+		assertEquals(EpochArithmetic.epochDay(2012, 3, 1), 
+				EpochArithmetic.epochDay(2012, 2, 30));
+		assertEquals(EpochArithmetic.epochDay(2013, 1, 1), 
+				EpochArithmetic.epochDay(2012, 13, 1));
+	}
+}
@@ -0,0 +1,104 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import javax.measure.quantity.Duration;
+import javax.measure.unit.BaseUnit;
+import javax.measure.unit.Unit;
+
+/**
+ * JScience units for the precisions of times.
+ * 
+ * iso8601-core keeps precision as a TimePrecision code and has no 
+ * 	dependency on JScience.  This class, in the iso8601-jscience module,
+ * 	converts between the two, e.g., TimeUnit.unitOf(t) for what 
+ * 	Iso8601UnitTime.getUnit() used to return, and 
+ * 	builder.setPrecision(TimeUnit.precisionOf(u)) for what 
+ * 	IsoUnitTimeBuilder.setUnit(u) used to do.
+ */
+public class TimeUnit {
+	public static final BaseUnit<Duration> SECOND = new BaseUnit<Duration>("s");
+	public static final Unit<Duration> DECISECOND = SECOND.divide(10);
+	public static final Unit<Duration> CENTISECOND = SECOND.divide(100);
+	public static final Unit<Duration> MILLISECOND = SECOND.divide(1000);
+	public static final Unit<Duration> SECOND_MIN_4 = SECOND.divide(10000);
+	public static final Unit<Duration> MICROSECOND = MILLISECOND.divide(1000);
+	public static final Unit<Duration> NANOSECOND = MICROSECOND.divide(1000);
+	
+	public static final Unit<Duration> MINUTE = SECOND.times(60);
+	public static final Unit<Duration> HOUR = SECOND.times(3600);
+	
+	/*
+	 * The units of the subsecond precisions, by number of digits after the
+	 * 	decimal point.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static final Unit<Duration>[] SUBSECOND_UNITS = new Unit[] {
+		SECOND, DECISECOND, CENTISECOND, MILLISECOND, SECOND_MIN_4, 
+		SECOND.divide(100000), MICROSECOND, SECOND.divide(10000000), 
+		SECOND.divide(100000000), NANOSECOND
+	};
+	
+	/**
+	 * 
+	 * @param precision A TimePrecision code
+	 * @return The unit for the code
+	 * @throws IllegalArgumentException if the code is not one of the 
+	 * 			TimePrecision codes from HOUR to NANOSECOND
+	 */
+	public static Unit<Duration> forPrecision(int precision) {
+		if (precision == TimePrecision.HOUR) {
+			return HOUR;
+		} else if (precision == TimePrecision.MINUTE) {
+			return MINUTE;
+		} else if (precision >= 0 && precision < SUBSECOND_UNITS.length) {
+			return SUBSECOND_UNITS[precision];
+		}
+		throw new IllegalArgumentException("Not a TimePrecision code: " + 
+				precision);
+	}
+	
+	/**
+	 * 
+	 * @param u An hour, a minute, or a second divided by 10^0 to 10^9
+	 * @return The TimePrecision code for the unit
+	 * @throws IllegalArgumentException for any other unit
+	 */
+	public static byte precisionOf(Unit<Duration> u) {
+		if (u.equals(HOUR)) {
+			return TimePrecision.HOUR;
+		} else if (u.equals(MINUTE)) {
+			return TimePrecision.MINUTE;
+		}
+		double seconds = u.getConverterTo(SECOND).convert(1D);
+		long divisor = 1L;
+		for (int i=0; i<SUBSECOND_UNITS.length; i++) {
+			if (seconds == 1D/divisor) {
+				return (byte)i;
+			}
+			divisor *= 10;
+		}
+		throw new IllegalArgumentException("Unsupported time unit: " + u);
+	}
+	
+	/**
+	 * 
+	 * @param t A time
+	 * @return The precision of the time as a unit
+	 */
+	public static Unit<Duration> unitOf(Iso8601UnitTime t) {
+		return forPrecision(t.getPrecision());
+	}
+}
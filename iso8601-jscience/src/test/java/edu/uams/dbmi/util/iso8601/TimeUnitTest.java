@@ -0,0 +1,86 @@
+ /* Copyright 2011 University of Arkansas for Medical Sciences
+  *
+  *   Licensed under the Apache License, Version 2.0 (the "License");
+  *   you may not use this file except in compliance with the License.
+  *   You may obtain a copy of the License at
+  *
+  *       http://www.apache.org/licenses/LICENSE-2.0
+  *
+  *   Unless required by applicable law or agreed to in writing, software
+  *   distributed under the License is distributed on an "AS IS" BASIS,
+  *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *   See the License for the specific language governing permissions and
+  *   limitations under the License.
+  */
+package edu.uams.dbmi.util.iso8601;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.measure.quantity.Duration;
+import javax.measure.unit.Unit;
+
+import org.junit.Test;
+import junit.framework.TestCase;
+
+public class TimeUnitTest extends TestCase {
+	@Test
+	public void testRoundTrip() {
+		byte[] codes = { TimePrecision.HOUR, TimePrecision.MINUTE, 
+				TimePrecision.SECOND, TimePrecision.DECISECOND, 
+				TimePrecision.CENTISECOND, TimePrecision.MILLISECOND, 
+				TimePrecision.SECOND_MIN_4, 5, TimePrecision.MICROSECOND, 7, 8,
+				TimePrecision.NANOSECOND };
+		for (byte p : codes) {
+			assertEquals(p, TimeUnit.precisionOf(TimeUnit.forPrecision(p)));
+		}
+		assertEquals(TimePrecision.MILLISECOND, 
+				TimeUnit.precisionOf(TimeUnit.SECOND.divide(1000)));
+		assertEquals(TimeUnit.HOUR, TimeUnit.forPrecision(TimePrecision.HOUR));
+		assertEquals(TimeUnit.NANOSECOND, 
+				TimeUnit.forPrecision(TimePrecision.NANOSECOND));
+	}
+	
+	@Test
+	public void testUnitOf() throws Iso8601TimeParseException {
+		Iso8601TimeParser p = new Iso8601TimeParser();
+		assertEquals(TimeUnit.HOUR, 
+				TimeUnit.unitOf((Iso8601UnitTime)p.parse("12")));
+		assertEquals(TimeUnit.MINUTE, 
+				TimeUnit.unitOf((Iso8601UnitTime)p.parse("12:30")));
+		assertEquals(TimeUnit.SECOND, 
+				TimeUnit.unitOf((Iso8601UnitTime)p.parse("12:30:15")));
+		assertEquals(TimeUnit.MICROSECOND, 
+				TimeUnit.unitOf((Iso8601UnitTime)p.parse("12:30:15.000150")));
+		
+		IsoUnitTimeBuilder tb = new IsoUnitTimeBuilder(12);
+		tb.setMinute(30);
+		tb.setSecond(15);
+		tb.setPrecision(TimeUnit.precisionOf(TimeUnit.CENTISECOND));
+		tb.setSubsecond(25);
+		assertEquals(p.parse("12:30:15.25"), new Iso8601UnitTime(tb));
+	}
+	
+	@Test
+	public void testUnsupportedUnits() {
+		List<Unit<Duration>> units = Arrays.asList(TimeUnit.SECOND.times(2), 
+				TimeUnit.SECOND.divide(3), TimeUnit.NANOSECOND.divide(10));
+		for (Unit<Duration> u : units) {
+			boolean err = false;
+			try {
+				TimeUnit.precisionOf(u);
+			} catch (IllegalArgumentException iae) {
+				err = true;
+			}
+			assertTrue(err);
+		}
+		
+		boolean err = false;
+		try {
+			TimeUnit.forPrecision(10);
+		} catch (IllegalArgumentException iae) {
+			err = true;
+		}
+		assertTrue(err);
+	}
+}